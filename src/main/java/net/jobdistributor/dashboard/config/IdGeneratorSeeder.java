@@ -0,0 +1,71 @@
+package net.jobdistributor.dashboard.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import net.jobdistributor.dashboard.entity.IdGenerators;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves every id_generators segment past the ids already in its table.
+ *
+ * Rows created while the tables used IDENTITY would otherwise collide with the
+ * first generated block. Runs once at startup, after the schema exists
+ * (EntityManagerFactory dependency) and before any request can insert. The
+ * update only ever raises a segment, so nodes starting together are safe.
+ *
+ * The switch from IDENTITY needs a full stop (or a blue/green cut-over), not a
+ * rolling deploy. An old node keeps inserting at the tables' AUTO_INCREMENT
+ * value, which is past the MAX(id) seeded here and therefore inside the block a
+ * new node is handing out; one of the two inserts then fails on the primary
+ * key. Stop every old node first, then start the new ones.
+ */
+@Component
+public class IdGeneratorSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // Segment name is the table name
+    static final List<String> TABLES = List.of(
+            "users", "emails", "passwords", "token_blacklist", "password_resets", "refresh_tokens", "email_outbox",
+            "one_time_tokens", "deletion_jobs", "admin_bulk_jobs");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Not used directly - injected so the schema exists before seeding
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void seed() {
+        for (String table : TABLES) {
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // The pooled optimizer hands out (next_val - ALLOCATION_SIZE, next_val]
+            long floor = maxId + IdGenerators.ALLOCATION_SIZE;
+            raiseSegment(table, floor);
+        }
+    }
+
+    private void raiseSegment(String segment, long floor) {
+        String update = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = GREATEST(" +
+                IdGenerators.VALUE_COLUMN + ", ?) WHERE " + IdGenerators.SEGMENT_COLUMN + " = ?";
+        if (jdbcTemplate.update(update, floor, segment) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN + ", " +
+                    IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)", segment, floor);
+            logger.info("Seeded id generator {} at {}", segment, floor);
+        } catch (DuplicateKeyException e) {
+            // Another node inserted it first
+            jdbcTemplate.update(update, floor, segment);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package net.jobdistributor.dashboard.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate settings for the account write path.
+ *
+ * With table-generated ids (see IdGenerators) inserts wait until flush, where
+ * Hibernate groups them per table into JDBC batches; ordering inserts and
+ * updates by entity keeps a signup's rows from interleaving and splitting the
+ * batches. On MySQL add rewriteBatchedStatements=true to the JDBC URL so each
+ * batch goes over the wire as one multi-row statement.
+ */
+@Configuration
+public class PersistenceConfig {
+
+    @Value("${app.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer batchingPropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package net.jobdistributor.dashboard.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Thread pool for @Scheduled methods.
+ *
+ * Spring's default scheduler has a single thread, so one slow task delays every
+ * other one - including AccountChangeLog.poll, whose 1 s cadence is what lets
+ * the token blacklist index, generation cache and email directory answer from
+ * memory. Jobs that run for seconds hand their work to MaintenanceExecutor; this
+ * pool covers the remaining short tasks (polls, resume scans, purges) so they do
+ * not queue behind each other either.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Value("${app.scheduling.pool-size:4}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+}
@@ -1,8 +1,13 @@
 package net.jobdistributor.dashboard.controller;
 
+import net.jobdistributor.dashboard.security.ClientIpResolver;
+import net.jobdistributor.dashboard.service.AuthCompletionExecutor;
+import net.jobdistributor.dashboard.service.AuthRateLimiter;
 import net.jobdistributor.dashboard.service.AuthService;
 import net.jobdistributor.dashboard.service.JwtService;
+import net.jobdistributor.dashboard.service.RefreshTokenService;
 import net.jobdistributor.dashboard.dto.*;
+import net.jobdistributor.dashboard.repository.LoginCredentials;
 import net.jobdistributor.dashboard.util.AuthenticationUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -10,6 +15,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -21,12 +28,25 @@ public class AuthController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private AuthCompletionExecutor authCompletionExecutor;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @PostMapping("/signup")
-    public ResponseEntity<SignupResponse> signup(@Valid @RequestBody SignupRequest request,
-                                                 HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<SignupResponse>> signup(@Valid @RequestBody SignupRequest request,
+                                                                    HttpServletRequest httpRequest) {
         String ipAddress = getClientIpAddress(httpRequest);
+        authRateLimiter.checkSignup(ipAddress, request.getEmail());
 
-        AuthService.SignupResult result = authService.signup(
+        return authService.signup(
                 request.getEmail(),
                 request.getFirstName(),
                 request.getLastName(),
@@ -35,41 +55,73 @@ public class AuthController {
                 request.getProfileUrl(),
                 request.getPassword(),
                 ipAddress
-        );
-
-        return ResponseEntity.ok(new SignupResponse(
+        ).thenApply(result -> ResponseEntity.ok(new SignupResponse(
                 result.isSuccess(),
                 result.getMessage(),
                 result.getUserId()
-        ));
+        )));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
-                                               HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                  HttpServletRequest httpRequest) {
         String ipAddress = getClientIpAddress(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
+        authRateLimiter.checkLogin(ipAddress, request.getEmail());
 
-        AuthService.LoginResult result = authService.login(
+        // Password check runs on the hashing pool; the servlet thread is released meanwhile.
+        // Token issue inserts a refresh token, so it runs on the completion pool, not a BCrypt worker.
+        return authService.login(
                 request.getEmail(),
                 request.getPassword(),
                 ipAddress,
                 userAgent
+        ).thenApplyAsync(result -> {
+            if (result.isSuccess()) {
+                // Short-lived access token plus a refresh token to renew it
+                LoginCredentials credentials = result.getCredentials();
+                String token = jwtService.generateToken(credentials);
+                String refreshToken = refreshTokenService.issue(credentials.userId(), credentials.tokenGeneration(), ipAddress);
+
+                return ResponseEntity.ok(new LoginResponse(
+                        true,
+                        result.getMessage(),
+                        token,
+                        refreshToken,
+                        jwtService.getAccessExpiration() / 1000,
+                        UserDto.fromCredentials(credentials)
+                ));
+            }
+
+            return ResponseEntity.badRequest().body(new LoginResponse(
+                    false,
+                    result.getMessage(),
+                    null,
+                    null
+            ));
+        }, authCompletionExecutor);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request,
+                                                 HttpServletRequest httpRequest) {
+        RefreshTokenService.RefreshResult result = refreshTokenService.refresh(
+                request.getRefreshToken(),
+                getClientIpAddress(httpRequest)
         );
 
         if (result.isSuccess()) {
-            // Generate JWT token
-            String token = jwtService.generateToken(result.getUser());
-
             return ResponseEntity.ok(new LoginResponse(
                     true,
                     result.getMessage(),
-                    token,
+                    result.getAccessToken(),
+                    result.getRefreshToken(),
+                    jwtService.getAccessExpiration() / 1000,
                     UserDto.fromUser(result.getUser())
             ));
         }
 
-        return ResponseEntity.badRequest().body(new LoginResponse(
+        return ResponseEntity.status(401).body(new LoginResponse(
                 false,
                 result.getMessage(),
                 null,
@@ -91,6 +143,7 @@ public class AuthController {
     public ResponseEntity<ApiResponse> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request,
                                                       HttpServletRequest httpRequest) {
         String ipAddress = getClientIpAddress(httpRequest);
+        authRateLimiter.checkForgotPassword(ipAddress, request.getEmail());
 
         // Always return success to prevent email enumeration
         authService.initiatePasswordReset(request.getEmail(), ipAddress);
@@ -102,14 +155,12 @@ public class AuthController {
     }
 
     @PostMapping("/reset-password")
-    public ResponseEntity<ApiResponse> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
-        boolean success = authService.resetPassword(request.getToken(), request.getNewPassword());
-
-
-        return ResponseEntity.ok(new ApiResponse(
-                success,
-                success ? "Password reset successfully" : "Invalid or expired token"
-        ));
+    public CompletableFuture<ResponseEntity<ApiResponse>> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
+        return authService.resetPassword(request.getToken(), request.getNewPassword())
+                .thenApply(success -> ResponseEntity.ok(new ApiResponse(
+                        success,
+                        success ? "Password reset successfully" : "Invalid or expired token"
+                )));
     }
 
     @PutMapping("/profile")
@@ -133,16 +184,7 @@ public class AuthController {
     }
 
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            return xForwardedFor.split(",")[0];
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
+        // Forwarding headers only count when they come from one of our proxies
+        return clientIpResolver.resolve(request);
     }
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 package net.jobdistributor.dashboard.controller;
 
 import net.jobdistributor.dashboard.dto.LogoutResult;
+import net.jobdistributor.dashboard.dto.RefreshTokenRequest;
 import net.jobdistributor.dashboard.service.LogoutService;
-import net.jobdistributor.dashboard.service.JwtService;
+import net.jobdistributor.dashboard.security.VerifiedToken;
 import net.jobdistributor.dashboard.util.AuthenticationUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,19 +20,16 @@ public class LogoutController {
     @Autowired
     private LogoutService logoutService;
 
-    @Autowired
-    private JwtService jwtService;
-
     /**
      * Logout current session (invalidate current JWT token)
      */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> logout(@RequestBody(required = false) RefreshTokenRequest body,
+                                                      HttpServletRequest request) {
         Long currentUserId = AuthenticationUtil.requireCurrentUserId();
 
-        // Extract token from Authorization header
-        String authHeader = request.getHeader("Authorization");
-        String token = jwtService.extractTokenFromHeader(authHeader);
+        // Token was already verified by JwtAuthenticationFilter for this request
+        VerifiedToken token = VerifiedToken.from(request);
 
         if (token == null) {
             Map<String, Object> response = new HashMap<>();
@@ -40,7 +38,8 @@ public class LogoutController {
             return ResponseEntity.badRequest().body(response);
         }
 
-        LogoutResult result = logoutService.logout(token, currentUserId);
+        String refreshToken = body != null ? body.getRefreshToken() : null;
+        LogoutResult result = logoutService.logout(token, refreshToken, currentUserId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", result.isSuccess());
@@ -98,14 +97,12 @@ public class LogoutController {
         }
 
         // Check if current token is valid (includes blacklist AND generation check)
-        String authHeader = request.getHeader("Authorization");
-        String token = jwtService.extractTokenFromHeader(authHeader);
-
-        // UPDATED: Use the enhanced validateToken method that checks:
+        // JwtAuthenticationFilter only stores the token on the request after checking:
         // 1. JWT signature and expiration
         // 2. Token blacklist (individual logout)
         // 3. Token generation (logout-all)
-        boolean tokenValid = token != null && jwtService.validateToken(token);
+        VerifiedToken token = VerifiedToken.from(request);
+        boolean tokenValid = token != null;
 
         response.put("authenticated", tokenValid);
         response.put("userId", currentUserId);
@@ -116,15 +113,15 @@ public class LogoutController {
             // ADDED: Include token info for debugging
             try {
                 response.put("tokenInfo", Map.of(
-                        "issuedAt", jwtService.getIssuedAtFromToken(token),
-                        "expiresAt", jwtService.getExpirationFromToken(token)
+                        "issuedAt", token.issuedAt(),
+                        "expiresAt", token.expiresAt()
                 ));
             } catch (Exception e) {
                 // Token info extraction failed, but validation passed
             }
         } else {
             // UPDATED: More specific error messages
-            if (token == null) {
+            if (request.getHeader("Authorization") == null) {
                 response.put("message", "No token provided");
             } else {
                 response.put("message", "Session invalid - token expired, blacklisted, or invalidated by logout-all");
@@ -140,24 +137,21 @@ public class LogoutController {
     @GetMapping("/session-info")
     public ResponseEntity<Map<String, Object>> getSessionInfo(HttpServletRequest request) {
         Long currentUserId = AuthenticationUtil.requireCurrentUserId();
-        String authHeader = request.getHeader("Authorization");
-        String token = jwtService.extractTokenFromHeader(authHeader);
+        VerifiedToken token = VerifiedToken.from(request);
 
-        if (token == null || !jwtService.validateToken(token)) {
+        if (token == null) {
             return ResponseEntity.status(401).body(Map.of(
                     "error", "Invalid or missing token"
             ));
         }
 
         try {
-            Long tokenGeneration = jwtService.getTokenGenerationFromToken(token);
-
             Map<String, Object> response = new HashMap<>();
             response.put("userId", currentUserId);
-            response.put("tokenGeneration", tokenGeneration);
-            response.put("issuedAt", jwtService.getIssuedAtFromToken(token));
-            response.put("expiresAt", jwtService.getExpirationFromToken(token));
-            response.put("email", jwtService.getEmailFromToken(token));
+            response.put("tokenGeneration", token.tokenGeneration());
+            response.put("issuedAt", token.issuedAt());
+            response.put("expiresAt", token.expiresAt());
+            response.put("email", token.email());
             response.put("status", "active");
 
             return ResponseEntity.ok(response);
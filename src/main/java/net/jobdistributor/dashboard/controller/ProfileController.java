@@ -2,6 +2,7 @@ package net.jobdistributor.dashboard.controller;
 
 import net.jobdistributor.dashboard.entity.User;
 import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.security.DashboardPrincipal;
 import net.jobdistributor.dashboard.util.AuthenticationUtil;
 import net.jobdistributor.dashboard.dto.UserDto;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,28 +50,15 @@ public class ProfileController {
      */
     @GetMapping("/basic")
     public ResponseEntity<Map<String, Object>> getBasicUserInfo() {
-        Long currentUserId = AuthenticationUtil.requireCurrentUserId();
-
-        Optional<User> userOpt = userRepository.findById(currentUserId);
-        if (userOpt.isEmpty()) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", "User not found");
-            return ResponseEntity.badRequest().body(response);
-        }
-
-        User user = userOpt.get();
+        // Everything here is in the access token - no database access needed
+        DashboardPrincipal principal = AuthenticationUtil.requireCurrentPrincipal();
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("userId", user.getId());
-        response.put("email", user.getEmails().stream()
-                .filter(email -> email.getIsPrimary() && !email.getIsDeleted())
-                .map(email -> email.getEmailAddress())
-                .findFirst()
-                .orElse("no-email"));
-        response.put("fullName", user.getFirstName() + " " + (user.getLastName() != null ? user.getLastName() : ""));
-        response.put("status", user.getStatus());
+        response.put("userId", principal.userId());
+        response.put("email", principal.email() != null ? principal.email() : "no-email");
+        response.put("fullName", principal.fullName());
+        response.put("status", principal.status());
         response.put("authenticated", true);
 
         return ResponseEntity.ok(response);
@@ -99,7 +87,6 @@ public class ProfileController {
 
         // Get all active emails
         var emails = user.getEmails().stream()
-                .filter(email -> !email.getIsDeleted())
                 .map(email -> {
                     Map<String, Object> emailInfo = new HashMap<>();
                     emailInfo.put("emailAddress", email.getEmailAddress());
@@ -1,6 +1,7 @@
 package net.jobdistributor.dashboard.controller;
 
 import net.jobdistributor.dashboard.dto.ApiResponse;
+import net.jobdistributor.dashboard.security.DashboardPrincipal;
 import net.jobdistributor.dashboard.util.AuthenticationUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -47,11 +48,15 @@ public class TestController {
      */
     @GetMapping("/me")
     public ResponseEntity<Map<String, Object>> getCurrentUser() {
-        Long userId = AuthenticationUtil.requireCurrentUserId();
+        DashboardPrincipal principal = AuthenticationUtil.requireCurrentPrincipal();
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("userId", userId);
+        response.put("userId", principal.userId());
+        response.put("email", principal.email());
+        response.put("firstName", principal.firstName());
+        response.put("lastName", principal.lastName());
+        response.put("status", principal.status());
         response.put("authenticated", AuthenticationUtil.isAuthenticated());
 
         return ResponseEntity.ok(response);
@@ -1,5 +1,12 @@
 package net.jobdistributor.dashboard.controller;
 
+import jakarta.validation.Valid;
+import net.jobdistributor.dashboard.dto.AdminBulkJobRequest;
+import net.jobdistributor.dashboard.entity.AdminBulkJob;
+import net.jobdistributor.dashboard.entity.DeletionJob;
+import net.jobdistributor.dashboard.repository.DeletionPreviewCounts;
+import net.jobdistributor.dashboard.security.AdminAuthorization;
+import net.jobdistributor.dashboard.service.AdminBulkJobService;
 import net.jobdistributor.dashboard.service.UserDeletionService;
 import net.jobdistributor.dashboard.util.AuthenticationUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,14 +15,47 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/user")
 public class UserDeletionController {
 
+    // Fixed part of the deletion preview, built once
+    private static final Map<String, Object> DELETION_OPTIONS = Map.of(
+            "softDelete", Map.of(
+                    "name", "Deactivate Account (Soft Delete)",
+                    "description", "Marks account as inactive but preserves all data",
+                    "reversible", true,
+                    "endpoint", "PUT /api/user/deactivate",
+                    "safety", "SAFE - Data can be recovered"),
+            "hardDelete", Map.of(
+                    "name", "Delete Permanently (Hard Delete)",
+                    "description", "Permanently removes all user data from database",
+                    "reversible", false,
+                    "endpoint", "DELETE /api/user/delete-permanently",
+                    "safety", "DANGEROUS - Data cannot be recovered",
+                    "warning", "⚠️ THIS ACTION CANNOT BE UNDONE!"));
+
+    private static final Map<String, String> DATA_DESCRIPTIONS = Map.of(
+            "userRecord", "Your account information",
+            "emails", "All email addresses associated with account",
+            "passwords", "Password history",
+            "loginAttempts", "Login history and security logs",
+            "passwordResets", "Any pending password reset tokens",
+            "blacklistedTokens", "Revoked session tokens",
+            "refreshTokens", "Active and past sessions",
+            "oneTimeTokens", "Email verification and other one-time links");
+
     @Autowired
     private UserDeletionService userDeletionService;
 
+    @Autowired
+    private AdminBulkJobService adminBulkJobService;
+
+    @Autowired
+    private AdminAuthorization adminAuthorization;
+
     // ========================================
     // SOFT DELETE - Reversible Deactivation
     // ========================================
@@ -65,6 +105,9 @@ public class UserDeletionController {
      * - JWT token becomes invalid
      * - Data cannot be recovered
      * - User must signup again to create new account
+     *
+     * Accounts with a long login history are deleted in the background:
+     * the response is 202 with a deletion job id to poll.
      */
     @DeleteMapping("/delete-permanently")
     public ResponseEntity<Map<String, Object>> hardDeleteAccount() {
@@ -74,8 +117,15 @@ public class UserDeletionController {
                 userDeletionService.hardDeleteUser(currentUserId, currentUserId);
 
         Map<String, Object> response = buildResponse(result, "🔴 HARD DELETE");
+        if (result.getDeletionJobId() != null) {
+            response.put("deletionJobId", result.getDeletionJobId());
+        }
 
-        if (result.isSuccess()) {
+        if (result.isSuccess() && result.isPending()) {
+            response.put("statusUrl", "/api/user/deletion-jobs/" + result.getDeletionJobId());
+            response.put("nextAction", "Your account is being deleted. Check the status URL for progress.");
+            return ResponseEntity.accepted().body(response);
+        } else if (result.isSuccess()) {
             // Add warning about token invalidation
             response.put("warning", "Your session token is now invalid. You have been logged out.");
             response.put("nextAction", "Account permanently deleted. Create new account if needed.");
@@ -121,48 +171,88 @@ public class UserDeletionController {
     // ========================================
 
     /**
-     * Get deletion preview - shows what would be affected by deletion
+     * Get deletion preview - shows what would be affected by deletion.
+     * Row counts come from one aggregate query; the option descriptions never change.
      */
     @GetMapping("/deletion-preview")
     public ResponseEntity<Map<String, Object>> getDeletionPreview() {
         Long currentUserId = AuthenticationUtil.requireCurrentUserId();
 
+        Optional<UserDeletionService.DeletionPreview> previewOpt =
+                userDeletionService.getDeletionPreview(currentUserId);
+        if (previewOpt.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "User not found");
+            return ResponseEntity.status(404).body(response);
+        }
+
+        UserDeletionService.DeletionPreview preview = previewOpt.get();
+        DeletionPreviewCounts counts = preview.getCounts();
+
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("userId", currentUserId);
-
-        // Deletion options
-        Map<String, Object> options = new HashMap<>();
-
-        // Soft delete info
-        Map<String, Object> softDelete = new HashMap<>();
-        softDelete.put("name", "Deactivate Account (Soft Delete)");
-        softDelete.put("description", "Marks account as inactive but preserves all data");
-        softDelete.put("reversible", true);
-        softDelete.put("endpoint", "PUT /api/user/deactivate");
-        softDelete.put("safety", "SAFE - Data can be recovered");
-        options.put("softDelete", softDelete);
-
-        // Hard delete info
-        Map<String, Object> hardDelete = new HashMap<>();
-        hardDelete.put("name", "Delete Permanently (Hard Delete)");
-        hardDelete.put("description", "Permanently removes all user data from database");
-        hardDelete.put("reversible", false);
-        hardDelete.put("endpoint", "DELETE /api/user/delete-permanently");
-        hardDelete.put("safety", "DANGEROUS - Data cannot be recovered");
-        hardDelete.put("warning", "⚠️ THIS ACTION CANNOT BE UNDONE!");
-        options.put("hardDelete", hardDelete);
-
-        response.put("deletionOptions", options);
-
-        // What will be affected
-        Map<String, String> dataAffected = new HashMap<>();
-        dataAffected.put("userRecord", "Your account information");
-        dataAffected.put("emails", "All email addresses associated with account");
-        dataAffected.put("passwords", "Password history");
-        dataAffected.put("loginAttempts", "Login history and security logs");
-        dataAffected.put("passwordResets", "Any pending password reset tokens");
+        response.put("accountStatus", counts.status().name());
+        response.put("deletionOptions", DELETION_OPTIONS);
+        response.put("dataDescriptions", DATA_DESCRIPTIONS);
+
+        // Rows a permanent deletion would remove right now
+        Map<String, Object> dataAffected = new HashMap<>();
+        dataAffected.put("userRecord", 1);
+        dataAffected.put("emails", counts.emails());
+        dataAffected.put("passwords", counts.passwords());
+        dataAffected.put("loginAttempts", counts.loginAttempts());
+        dataAffected.put("passwordResets", counts.passwordResets());
+        dataAffected.put("blacklistedTokens", counts.blacklistedTokens());
+        dataAffected.put("refreshTokens", counts.refreshTokens());
+        dataAffected.put("oneTimeTokens", counts.oneTimeTokens());
         response.put("dataAffected", dataAffected);
+        response.put("totalRows", counts.totalRows());
+
+        response.put("executionMode", preview.isBackgroundJob() ? "BACKGROUND_JOB" : "INLINE");
+        response.put("estimatedDurationMs", preview.getEstimatedDuration().toMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the progress of a permanent deletion started by the current user
+     */
+    @GetMapping("/deletion-jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getDeletionJobStatus(@PathVariable Long jobId) {
+        Long currentUserId = AuthenticationUtil.requireCurrentUserId();
+
+        Optional<DeletionJob> jobOpt = userDeletionService.getDeletionJob(jobId, currentUserId);
+        if (jobOpt.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Deletion job not found");
+            return ResponseEntity.status(404).body(response);
+        }
+
+        DeletionJob job = jobOpt.get();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("deletionJobId", job.getId());
+        response.put("userId", job.getUserId());
+        response.put("status", job.getStatus().name());
+        response.put("createdAt", job.getCreatedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("finishedAt", job.getFinishedAt());
+        if (job.getLastError() != null) {
+            response.put("error", job.getLastError());
+        }
+
+        // Rows removed so far; final once status is COMPLETED
+        Map<String, Object> deleted = new HashMap<>();
+        deleted.put("users", job.getUsersDeleted());
+        deleted.put("emails", job.getEmailsDeleted());
+        deleted.put("passwords", job.getPasswordsDeleted());
+        deleted.put("loginAttempts", job.getLoginAttemptsDeleted());
+        deleted.put("passwordResets", job.getPasswordResetsDeleted());
+        deleted.put("tokens", job.getTokensDeleted());
+        response.put("deleted", deleted);
 
         return ResponseEntity.ok(response);
     }
@@ -186,40 +276,126 @@ public class UserDeletionController {
     }
 
     // ========================================
-    // FUTURE: ADMIN ENDPOINTS
+    // ADMIN ENDPOINTS
     // ========================================
 
     /**
      * Admin endpoint: Delete any user by ID (HARD DELETE)
-     * TODO: Add admin role validation when roles are implemented
+     * Admins are the user ids listed in app.admin.user-ids
      */
     @DeleteMapping("/admin/delete-user/{userId}")
     public ResponseEntity<Map<String, Object>> adminDeleteUser(@PathVariable Long userId) {
         Long currentUserId = AuthenticationUtil.requireCurrentUserId();
+        if (!adminAuthorization.isAdmin(currentUserId)) {
+            return forbidden();
+        }
 
-        // TODO: Add admin role check here
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", false);
-        response.put("message", "Admin functionality not yet implemented");
-        response.put("note", "Role-based access control will be added in future version");
+        UserDeletionService.UserDeletionResult result =
+                userDeletionService.hardDeleteUser(userId, currentUserId);
 
-        return ResponseEntity.status(403).body(response);
+        Map<String, Object> response = buildResponse(result, "🔴 ADMIN HARD DELETE");
+        if (result.getDeletionJobId() != null) {
+            response.put("deletionJobId", result.getDeletionJobId());
+        }
+
+        if (result.isSuccess() && result.isPending()) {
+            response.put("statusUrl", "/api/user/deletion-jobs/" + result.getDeletionJobId());
+            return ResponseEntity.accepted().body(response);
+        } else if (result.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     /**
      * Admin endpoint: Soft delete any user by ID
-     * TODO: Add admin role validation when roles are implemented
      */
     @PutMapping("/admin/deactivate-user/{userId}")
     public ResponseEntity<Map<String, Object>> adminDeactivateUser(@PathVariable Long userId) {
         Long currentUserId = AuthenticationUtil.requireCurrentUserId();
+        if (!adminAuthorization.isAdmin(currentUserId)) {
+            return forbidden();
+        }
 
-        // TODO: Add admin role check here
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", false);
-        response.put("message", "Admin functionality not yet implemented");
+        UserDeletionService.UserDeletionResult result =
+                userDeletionService.softDeleteUser(userId, currentUserId);
 
-        return ResponseEntity.status(403).body(response);
+        Map<String, Object> response = buildResponse(result, "🟡 ADMIN SOFT DELETE");
+
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Admin endpoint: Deactivate, restore, revoke sessions for or hard delete
+     * every user matching a filter, as a throttled background job
+     */
+    @PostMapping("/admin/bulk-jobs")
+    public ResponseEntity<Map<String, Object>> createBulkJob(@Valid @RequestBody AdminBulkJobRequest request) {
+        Long currentUserId = AuthenticationUtil.requireCurrentUserId();
+        if (!adminAuthorization.isAdmin(currentUserId)) {
+            return forbidden();
+        }
+
+        AdminBulkJobService.BulkJobResult result = adminBulkJobService.createJob(request, currentUserId);
+        if (!result.isSuccess()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", result.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Map<String, Object> response = buildBulkJobResponse(result.getJob());
+        response.put("message", result.getMessage());
+        response.put("statusUrl", "/api/user/admin/bulk-jobs/" + result.getJob().getId());
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Admin endpoint: Progress and failure counts of a bulk job
+     */
+    @GetMapping("/admin/bulk-jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getBulkJob(@PathVariable Long jobId) {
+        Long currentUserId = AuthenticationUtil.requireCurrentUserId();
+        if (!adminAuthorization.isAdmin(currentUserId)) {
+            return forbidden();
+        }
+
+        Optional<AdminBulkJob> jobOpt = adminBulkJobService.getJob(jobId);
+        if (jobOpt.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Bulk job not found");
+            return ResponseEntity.status(404).body(response);
+        }
+        return ResponseEntity.ok(buildBulkJobResponse(jobOpt.get()));
+    }
+
+    /**
+     * Admin endpoint: Stop a bulk job; users already processed stay processed
+     */
+    @PostMapping("/admin/bulk-jobs/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelBulkJob(@PathVariable Long jobId) {
+        Long currentUserId = AuthenticationUtil.requireCurrentUserId();
+        if (!adminAuthorization.isAdmin(currentUserId)) {
+            return forbidden();
+        }
+
+        AdminBulkJobService.BulkJobResult result = adminBulkJobService.cancelJob(jobId, currentUserId);
+        if (!result.isSuccess()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", result.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Map<String, Object> response = buildBulkJobResponse(result.getJob());
+        response.put("message", result.getMessage());
+        return ResponseEntity.ok(response);
     }
 
     // ========================================
@@ -241,9 +417,53 @@ public class UserDeletionController {
             summary.put("passwordsAffected", result.getSummary().getPasswordsAffected());
             summary.put("loginAttemptsAffected", result.getSummary().getLoginAttemptsAffected());
             summary.put("passwordResetsAffected", result.getSummary().getPasswordResetsAffected());
+            summary.put("tokensAffected", result.getSummary().getTokensAffected());
             response.put("summary", summary);
         }
 
         return response;
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> buildBulkJobResponse(AdminBulkJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("bulkJobId", job.getId());
+        response.put("operation", job.getOperation().name());
+        response.put("status", job.getStatus().name());
+        response.put("requestedBy", job.getRequestedBy());
+        response.put("rowsPerSecond", job.getRowsPerSecond());
+        response.put("createdAt", job.getCreatedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("finishedAt", job.getFinishedAt());
+
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("organization", job.getFilterOrganization());
+        filter.put("status", job.getFilterStatus());
+        filter.put("createdFrom", job.getFilterCreatedFrom());
+        filter.put("createdTo", job.getFilterCreatedTo());
+        filter.put("lastLoginFrom", job.getFilterLastLoginFrom());
+        filter.put("lastLoginTo", job.getFilterLastLoginTo());
+        response.put("filter", filter);
+
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("matchedEstimate", job.getMatchedEstimate());
+        progress.put("processed", job.getProcessed());
+        progress.put("succeeded", job.getSucceeded());
+        progress.put("skipped", job.getSkipped());
+        progress.put("failed", job.getFailed());
+        progress.put("lastUserId", job.getLastUserId());
+        response.put("progress", progress);
+
+        if (job.getLastError() != null) {
+            response.put("lastError", job.getLastError());
+        }
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> forbidden() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Admin access required");
+        return ResponseEntity.status(403).body(response);
+    }
+}
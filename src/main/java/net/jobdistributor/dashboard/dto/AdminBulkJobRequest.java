@@ -0,0 +1,63 @@
+package net.jobdistributor.dashboard.dto;
+
+import jakarta.validation.constraints.*;
+import net.jobdistributor.dashboard.entity.AdminBulkOperation;
+import net.jobdistributor.dashboard.entity.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Admin bulk job: an operation and the filter selecting its users.
+ * Ranges are [from, to); at least one filter field is required.
+ */
+public class AdminBulkJobRequest {
+    @NotNull(message = "Operation is required")
+    private AdminBulkOperation operation;
+
+    @Size(max = 100, message = "Organization must not exceed 100 characters")
+    private String organization;
+
+    private UserStatus status;
+
+    private LocalDateTime createdFrom;
+
+    private LocalDateTime createdTo;
+
+    private LocalDateTime lastLoginFrom;
+
+    private LocalDateTime lastLoginTo;
+
+    // Defaults to app.admin-bulk-jobs.default-rows-per-second
+    @Positive(message = "Rows per second must be positive")
+    private Integer rowsPerSecond;
+
+    public boolean hasFilter() {
+        return (organization != null && !organization.isBlank()) || status != null
+                || createdFrom != null || createdTo != null || lastLoginFrom != null || lastLoginTo != null;
+    }
+
+    // Getters and setters
+    public AdminBulkOperation getOperation() { return operation; }
+    public void setOperation(AdminBulkOperation operation) { this.operation = operation; }
+
+    public String getOrganization() { return organization; }
+    public void setOrganization(String organization) { this.organization = organization; }
+
+    public UserStatus getStatus() { return status; }
+    public void setStatus(UserStatus status) { this.status = status; }
+
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDateTime createdFrom) { this.createdFrom = createdFrom; }
+
+    public LocalDateTime getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDateTime createdTo) { this.createdTo = createdTo; }
+
+    public LocalDateTime getLastLoginFrom() { return lastLoginFrom; }
+    public void setLastLoginFrom(LocalDateTime lastLoginFrom) { this.lastLoginFrom = lastLoginFrom; }
+
+    public LocalDateTime getLastLoginTo() { return lastLoginTo; }
+    public void setLastLoginTo(LocalDateTime lastLoginTo) { this.lastLoginTo = lastLoginTo; }
+
+    public Integer getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(Integer rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+}
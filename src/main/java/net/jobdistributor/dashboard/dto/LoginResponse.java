@@ -4,17 +4,29 @@ public class LoginResponse {
     private boolean success;
     private String message;
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private UserDto user;
 
     public LoginResponse(boolean success, String message, String token, UserDto user) {
+        this(success, message, token, null, null, user);
+    }
+
+    public LoginResponse(boolean success, String message, String token, String refreshToken,
+                         Long expiresIn, UserDto user) {
         this.success = success;
         this.message = message;
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
         this.user = user;
     }
 
     public boolean isSuccess() { return success; }
     public String getMessage() { return message; }
     public String getToken() { return token; }
+    public String getRefreshToken() { return refreshToken; }
+    // Access token lifetime in seconds
+    public Long getExpiresIn() { return expiresIn; }
     public UserDto getUser() { return user; }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ package net.jobdistributor.dashboard.dto;
 
 import net.jobdistributor.dashboard.entity.User;
 import net.jobdistributor.dashboard.entity.UserStatus;
+import net.jobdistributor.dashboard.repository.LoginCredentials;
 import java.time.LocalDateTime;
 
 public class UserDto {
@@ -40,7 +41,7 @@ public class UserDto {
 
         // Get primary email
         dto.setPrimaryEmail(user.getEmails().stream()
-                .filter(email -> email.getIsPrimary() && !email.getIsDeleted())
+                .filter(email -> email.getIsPrimary())
                 .map(email -> email.getEmailAddress())
                 .findFirst()
                 .orElse("no-email"));
@@ -48,6 +49,25 @@ public class UserDto {
         return dto;
     }
 
+    public static UserDto fromCredentials(LoginCredentials credentials) {
+        UserDto dto = new UserDto();
+        dto.setId(credentials.userId());
+        dto.setFirstName(credentials.firstName());
+        dto.setLastName(credentials.lastName());
+        dto.setFullName(credentials.firstName() + " " + (credentials.lastName() != null ? credentials.lastName() : ""));
+        dto.setOrganization(credentials.organization());
+        dto.setJobRole(credentials.jobRole());
+        dto.setProfileUrl(credentials.profileUrl());
+        dto.setStatus(credentials.status());
+        dto.setEmailVerifiedAt(credentials.emailVerifiedAt());
+        dto.setLastLoginAt(credentials.lastLoginAt());
+        dto.setLastLoginIp(credentials.lastLoginIp());
+        dto.setCreatedAt(credentials.createdAt());
+        dto.setUpdatedAt(credentials.updatedAt());
+        dto.setPrimaryEmail(credentials.email());
+        return dto;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,56 @@
+package net.jobdistributor.dashboard.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only change log read by every dashboard node to keep local
+ * revocation caches in sync. IDs must stay monotonic (IDENTITY) because
+ * nodes poll with an id cursor.
+ */
+@Entity
+@Table(name = "account_change_events")
+public class AccountChangeEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 32, nullable = false)
+    private AccountChangeType eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AccountChangeEvent() {}
+
+    public AccountChangeEvent(AccountChangeType eventType, Long userId, byte[] tokenHash) {
+        this.eventType = eventType;
+        this.userId = userId;
+        this.tokenHash = tokenHash;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public AccountChangeType getEventType() { return eventType; }
+    public void setEventType(AccountChangeType eventType) { this.eventType = eventType; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
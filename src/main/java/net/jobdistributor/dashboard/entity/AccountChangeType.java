@@ -0,0 +1,10 @@
+package net.jobdistributor.dashboard.entity;
+
+public enum AccountChangeType {
+    TOKEN_REVOKED,
+    GENERATION_CHANGED,
+    // A user's emails were added or flagged (signup, soft delete, restore)
+    EMAILS_CHANGED,
+    // A user and their emails were hard deleted
+    USER_REMOVED
+}
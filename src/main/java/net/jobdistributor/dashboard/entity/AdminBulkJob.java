@@ -0,0 +1,176 @@
+package net.jobdistributor.dashboard.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Admin operation over every user matching a filter, run by AdminBulkJobRunner.
+ * Users are visited in id order; lastUserId is the keyset cursor and commits with
+ * each chunk's results, so a job resumed after a restart continues where it stopped.
+ * Null filter fields match everything.
+ */
+@Entity
+@Table(name = "admin_bulk_jobs", indexes = {
+        @Index(name = "idx_admin_bulk_jobs_status", columnList = "status, claimed_until")
+})
+public class AdminBulkJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "admin_bulk_jobs_id")
+    @TableGenerator(name = "admin_bulk_jobs_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "admin_bulk_jobs",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 32, nullable = false)
+    private AdminBulkOperation operation;
+
+    @Column(name = "requested_by", nullable = false)
+    private Long requestedBy;
+
+    // Filter
+    @Column(name = "filter_organization", length = 100)
+    private String filterOrganization;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "filter_status", length = 32)
+    private UserStatus filterStatus;
+
+    @Column(name = "filter_created_from")
+    private LocalDateTime filterCreatedFrom;
+
+    @Column(name = "filter_created_to")
+    private LocalDateTime filterCreatedTo;
+
+    @Column(name = "filter_last_login_from")
+    private LocalDateTime filterLastLoginFrom;
+
+    @Column(name = "filter_last_login_to")
+    private LocalDateTime filterLastLoginTo;
+
+    @Column(name = "rows_per_second", nullable = false)
+    private Integer rowsPerSecond;
+
+    // Progress
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private AdminBulkJobStatus status;
+
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId = 0L;
+
+    @Column(name = "matched_estimate", nullable = false)
+    private Long matchedEstimate = 0L;
+
+    @Column(name = "processed", nullable = false)
+    private Long processed = 0L;
+
+    @Column(name = "succeeded", nullable = false)
+    private Long succeeded = 0L;
+
+    // Matched but nothing to do (e.g. already deactivated, or an admin account)
+    @Column(name = "skipped", nullable = false)
+    private Long skipped = 0L;
+
+    @Column(name = "failed", nullable = false)
+    private Long failed = 0L;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "claimed_by", length = 128)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public AdminBulkJob() {}
+
+    public AdminBulkJob(AdminBulkOperation operation, Long requestedBy, int rowsPerSecond) {
+        this.operation = operation;
+        this.requestedBy = requestedBy;
+        this.rowsPerSecond = rowsPerSecond;
+        this.status = AdminBulkJobStatus.QUEUED;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public AdminBulkOperation getOperation() { return operation; }
+    public void setOperation(AdminBulkOperation operation) { this.operation = operation; }
+
+    public Long getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(Long requestedBy) { this.requestedBy = requestedBy; }
+
+    public String getFilterOrganization() { return filterOrganization; }
+    public void setFilterOrganization(String filterOrganization) { this.filterOrganization = filterOrganization; }
+
+    public UserStatus getFilterStatus() { return filterStatus; }
+    public void setFilterStatus(UserStatus filterStatus) { this.filterStatus = filterStatus; }
+
+    public LocalDateTime getFilterCreatedFrom() { return filterCreatedFrom; }
+    public void setFilterCreatedFrom(LocalDateTime filterCreatedFrom) { this.filterCreatedFrom = filterCreatedFrom; }
+
+    public LocalDateTime getFilterCreatedTo() { return filterCreatedTo; }
+    public void setFilterCreatedTo(LocalDateTime filterCreatedTo) { this.filterCreatedTo = filterCreatedTo; }
+
+    public LocalDateTime getFilterLastLoginFrom() { return filterLastLoginFrom; }
+    public void setFilterLastLoginFrom(LocalDateTime filterLastLoginFrom) { this.filterLastLoginFrom = filterLastLoginFrom; }
+
+    public LocalDateTime getFilterLastLoginTo() { return filterLastLoginTo; }
+    public void setFilterLastLoginTo(LocalDateTime filterLastLoginTo) { this.filterLastLoginTo = filterLastLoginTo; }
+
+    public Integer getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(Integer rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public AdminBulkJobStatus getStatus() { return status; }
+    public void setStatus(AdminBulkJobStatus status) { this.status = status; }
+
+    public Long getLastUserId() { return lastUserId; }
+    public void setLastUserId(Long lastUserId) { this.lastUserId = lastUserId; }
+
+    public Long getMatchedEstimate() { return matchedEstimate; }
+    public void setMatchedEstimate(Long matchedEstimate) { this.matchedEstimate = matchedEstimate; }
+
+    public Long getProcessed() { return processed; }
+    public void setProcessed(Long processed) { this.processed = processed; }
+
+    public Long getSucceeded() { return succeeded; }
+    public void setSucceeded(Long succeeded) { this.succeeded = succeeded; }
+
+    public Long getSkipped() { return skipped; }
+    public void setSkipped(Long skipped) { this.skipped = skipped; }
+
+    public Long getFailed() { return failed; }
+    public void setFailed(Long failed) { this.failed = failed; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,10 @@
+package net.jobdistributor.dashboard.entity;
+
+public enum AdminBulkJobStatus {
+    QUEUED,
+    // Claimed by a runner; picked up again if the claim expires
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package net.jobdistributor.dashboard.entity;
+
+public enum AdminBulkOperation {
+    DEACTIVATE,
+    RESTORE,
+    REVOKE_SESSIONS,
+    HARD_DELETE
+}
@@ -0,0 +1,128 @@
+package net.jobdistributor.dashboard.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Permanent deletion of one account, run by DeletionJobRunner.
+ * The counters hold the rows each DELETE statement reported, added as the job goes,
+ * so a job resumed after a crash still ends with exact totals.
+ */
+@Entity
+@Table(name = "deletion_jobs", indexes = {
+        @Index(name = "idx_deletion_jobs_status", columnList = "status, claimed_until"),
+        @Index(name = "idx_deletion_jobs_user_id", columnList = "user_id")
+})
+public class DeletionJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "deletion_jobs_id")
+    @TableGenerator(name = "deletion_jobs_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "deletion_jobs",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "requested_by", nullable = false)
+    private Long requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private DeletionJobStatus status;
+
+    @Column(name = "login_attempts_deleted", nullable = false)
+    private Long loginAttemptsDeleted = 0L;
+
+    @Column(name = "tokens_deleted", nullable = false)
+    private Long tokensDeleted = 0L;
+
+    @Column(name = "password_resets_deleted", nullable = false)
+    private Long passwordResetsDeleted = 0L;
+
+    @Column(name = "emails_deleted", nullable = false)
+    private Long emailsDeleted = 0L;
+
+    @Column(name = "passwords_deleted", nullable = false)
+    private Long passwordsDeleted = 0L;
+
+    @Column(name = "users_deleted", nullable = false)
+    private Long usersDeleted = 0L;
+
+    @Column(name = "claimed_by", length = 128)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public DeletionJob() {}
+
+    public DeletionJob(Long userId, Long requestedBy) {
+        this.userId = userId;
+        this.requestedBy = requestedBy;
+        this.status = DeletionJobStatus.QUEUED;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(Long requestedBy) { this.requestedBy = requestedBy; }
+
+    public DeletionJobStatus getStatus() { return status; }
+    public void setStatus(DeletionJobStatus status) { this.status = status; }
+
+    public Long getLoginAttemptsDeleted() { return loginAttemptsDeleted; }
+    public void setLoginAttemptsDeleted(Long loginAttemptsDeleted) { this.loginAttemptsDeleted = loginAttemptsDeleted; }
+
+    public Long getTokensDeleted() { return tokensDeleted; }
+    public void setTokensDeleted(Long tokensDeleted) { this.tokensDeleted = tokensDeleted; }
+
+    public Long getPasswordResetsDeleted() { return passwordResetsDeleted; }
+    public void setPasswordResetsDeleted(Long passwordResetsDeleted) { this.passwordResetsDeleted = passwordResetsDeleted; }
+
+    public Long getEmailsDeleted() { return emailsDeleted; }
+    public void setEmailsDeleted(Long emailsDeleted) { this.emailsDeleted = emailsDeleted; }
+
+    public Long getPasswordsDeleted() { return passwordsDeleted; }
+    public void setPasswordsDeleted(Long passwordsDeleted) { this.passwordsDeleted = passwordsDeleted; }
+
+    public Long getUsersDeleted() { return usersDeleted; }
+    public void setUsersDeleted(Long usersDeleted) { this.usersDeleted = usersDeleted; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,9 @@
+package net.jobdistributor.dashboard.entity;
+
+public enum DeletionJobStatus {
+    QUEUED,
+    // Claimed by a runner; picked up again if the claim expires
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
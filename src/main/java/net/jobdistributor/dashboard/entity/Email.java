@@ -4,10 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "emails")
+@Table(name = "emails", indexes = {
+        @Index(name = "idx_emails_address", columnList = "email_address"),
+        // MySQL has no partial indexes; is_deleted second lets user lookups skip deleted rows
+        @Index(name = "idx_emails_user_deleted", columnList = "user_id, is_deleted")
+})
 public class Email {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "emails_id")
+    @TableGenerator(name = "emails_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "emails",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,7 +27,7 @@ public class Email {
     @Column(name = "is_primary")
     private Boolean isPrimary = false;
 
-    @Column(name = "is_deleted")
+    @Column(name = "is_deleted", nullable = false)
     private Boolean isDeleted = false;
 
     @Column(name = "send_notification")
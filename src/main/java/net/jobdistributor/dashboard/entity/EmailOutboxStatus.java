@@ -0,0 +1,10 @@
+package net.jobdistributor.dashboard.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    // Claimed by a dispatcher; returns to PENDING if the claim expires
+    SENDING,
+    SENT,
+    // Gave up after the maximum number of attempts
+    FAILED
+}
@@ -0,0 +1,20 @@
+package net.jobdistributor.dashboard.entity;
+
+/**
+ * Kinds of transactional email. Lower priority values are dispatched first.
+ */
+public enum EmailType {
+    PASSWORD_RESET(0),
+    VERIFICATION(1),
+    WELCOME(2);
+
+    private final int priority;
+
+    EmailType(int priority) {
+        this.priority = priority;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,24 @@
+package net.jobdistributor.dashboard.entity;
+
+/**
+ * Shared settings for the table-backed id generators.
+ *
+ * IDENTITY columns make Hibernate insert each row as soon as it is persisted,
+ * which rules out JDBC insert batching. These entities instead take ids from
+ * the id_generators table in blocks of ALLOCATION_SIZE (pooled optimizer), so
+ * one generator round trip covers many inserts and the inserts themselves are
+ * batched at flush. IdGeneratorSeeder moves each segment past the existing
+ * rows at startup; old and new nodes must not write side by side (see there).
+ *
+ * AccountChangeEvent (cursor-polled, needs commit-ordered ids) and
+ * LoginAttempt (written with plain JDBC batches) keep IDENTITY.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {}
+}
@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "login_attempts")
+@Table(name = "login_attempts", indexes = {
+        @Index(name = "idx_login_attempts_user_id", columnList = "user_id"),
+        // Recent-attempt lookups by email or IP read one range per key (and prune partitions on MySQL)
+        @Index(name = "idx_login_attempts_email_created", columnList = "email, created_at"),
+        @Index(name = "idx_login_attempts_ip_created", columnList = "ip_address, created_at"),
+        // Retention's chunked delete walks expired rows in created_at order
+        @Index(name = "idx_login_attempts_created_at", columnList = "created_at")
+})
 public class LoginAttempt {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,91 @@
+package net.jobdistributor.dashboard.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Single-use token emailed to a user (verification link, password reset link).
+ * Only the SHA-256 of the token is stored; redeeming it is one conditional
+ * update on the unique token_hash index.
+ */
+@Entity
+@Table(name = "one_time_tokens", indexes = {
+        @Index(name = "idx_one_time_tokens_subject", columnList = "purpose, subject_id"),
+        @Index(name = "idx_one_time_tokens_user_id", columnList = "user_id"),
+        @Index(name = "idx_one_time_tokens_expires_at", columnList = "expires_at")
+})
+public class OneTimeToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "one_time_tokens_id")
+    @TableGenerator(name = "one_time_tokens_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "one_time_tokens",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", nullable = false, unique = true)
+    private byte[] tokenHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "purpose", length = 32, nullable = false)
+    private OneTimeTokenPurpose purpose;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(name = "created_ip", length = 45)
+    private String createdIp;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OneTimeToken() {}
+
+    public OneTimeToken(byte[] tokenHash, OneTimeTokenPurpose purpose, Long subjectId, Long userId,
+                        LocalDateTime expiresAt, String createdIp) {
+        this.tokenHash = tokenHash;
+        this.purpose = purpose;
+        this.subjectId = subjectId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.createdIp = createdIp;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
+
+    public OneTimeTokenPurpose getPurpose() { return purpose; }
+    public void setPurpose(OneTimeTokenPurpose purpose) { this.purpose = purpose; }
+
+    public Long getSubjectId() { return subjectId; }
+    public void setSubjectId(Long subjectId) { this.subjectId = subjectId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public LocalDateTime getUsedAt() { return usedAt; }
+    public void setUsedAt(LocalDateTime usedAt) { this.usedAt = usedAt; }
+
+    public String getCreatedIp() { return createdIp; }
+    public void setCreatedIp(String createdIp) { this.createdIp = createdIp; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
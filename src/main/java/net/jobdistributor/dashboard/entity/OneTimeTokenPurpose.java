@@ -0,0 +1,8 @@
+package net.jobdistributor.dashboard.entity;
+
+public enum OneTimeTokenPurpose {
+    // Subject is the email row being verified
+    EMAIL_VERIFICATION,
+    // Subject is the user whose password is reset
+    PASSWORD_RESET
+}
@@ -4,10 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "password_resets")
+@Table(name = "password_resets", indexes = {
+        @Index(name = "idx_password_resets_user_id", columnList = "user_id"),
+        // Retention's chunked delete walks expired rows in expiry order
+        @Index(name = "idx_password_resets_expires", columnList = "token_expires_at")
+})
 public class PasswordReset {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "password_resets_id")
+    @TableGenerator(name = "password_resets_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "password_resets",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
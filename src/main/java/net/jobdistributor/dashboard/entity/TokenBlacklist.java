@@ -4,14 +4,22 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "token_blacklist")
+@Table(name = "token_blacklist", indexes = {
+        @Index(name = "idx_token_blacklist_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_token_blacklist_user_id", columnList = "user_id")
+})
 public class TokenBlacklist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "token_blacklist_id")
+    @TableGenerator(name = "token_blacklist_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "token_blacklist",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
-    @Column(name = "token_hash", length = 128, nullable = false, unique = true)
-    private String tokenHash;
+    // Raw SHA-256 digest of the token; schemas from before it was binary need
+    // db/token_hash/token_hash_to_binary.sql
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", nullable = false, unique = true)
+    private byte[] tokenHash;
 
     @Column(name = "user_id", nullable = false)
     private Long userId;
@@ -28,7 +36,7 @@ public class TokenBlacklist {
     // Constructors
     public TokenBlacklist() {}
 
-    public TokenBlacklist(String tokenHash, Long userId, LocalDateTime expiresAt, String reason) {
+    public TokenBlacklist(byte[] tokenHash, Long userId, LocalDateTime expiresAt, String reason) {
         this.tokenHash = tokenHash;
         this.userId = userId;
         this.expiresAt = expiresAt;
@@ -40,8 +48,8 @@ public class TokenBlacklist {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    public String getTokenHash() { return tokenHash; }
-    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
 
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
@@ -122,6 +122,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Handle rate-limited auth requests
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse> handleRateLimitExceededException(
+            RateLimitExceededException ex, WebRequest request) {
+
+        String path = extractPath(request);
+        logger.warn("Rate limit exceeded on {}", path);
+
+        ApiResponse response = new ApiResponse(
+                false,
+                ex.getMessage(),
+                "RATE_LIMITED",
+                path,
+                "Retry after " + ex.getRetryAfterSeconds() + " seconds"
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * Handle a saturated password hashing pool - tell the client to retry shortly
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiResponse> handlePasswordHashingBusyException(
+            PasswordHashingBusyException ex, WebRequest request) {
+
+        String path = extractPath(request);
+        logger.warn("Password hashing pool saturated on {}", path);
+
+        ApiResponse response = new ApiResponse(
+                false,
+                ex.getMessage(),
+                "SERVICE_BUSY",
+                path,
+                "Retry after a short delay"
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(response);
+    }
+
     /**
      * Handle runtime exceptions
      */
@@ -0,0 +1,14 @@
+package net.jobdistributor.dashboard.exception;
+
+/**
+ * Thrown when the password hashing pool (or the auth completion pool) and its queue are full.
+ * Mapped to 503 so clients back off instead of piling up behind BCrypt.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException() {
+        super("Authentication service is busy, please retry shortly");
+    }
+}
@@ -0,0 +1,21 @@
+package net.jobdistributor.dashboard.exception;
+
+/**
+ * Thrown when a client exceeds an authentication rate limit.
+ * Mapped to 429 with a Retry-After header.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests, please try again later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
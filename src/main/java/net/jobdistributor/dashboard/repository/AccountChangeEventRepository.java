@@ -0,0 +1,27 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.AccountChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AccountChangeEventRepository extends JpaRepository<AccountChangeEvent, Long> {
+
+    @Query("SELECT e FROM AccountChangeEvent e WHERE e.id > :cursor ORDER BY e.id ASC")
+    List<AccountChangeEvent> findAfter(Long cursor, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM AccountChangeEvent e WHERE e.createdAt < :before")
+    long findMaxIdCreatedBefore(LocalDateTime before);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AccountChangeEvent e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
@@ -0,0 +1,59 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.AdminBulkJob;
+import net.jobdistributor.dashboard.entity.AdminBulkJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AdminBulkJobRepository extends JpaRepository<AdminBulkJob, Long> {
+
+    /**
+     * Claim a queued job, or one whose runner's claim ran out. Only one node wins.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminBulkJob j SET j.status = :running, j.claimedBy = :owner, j.claimedUntil = :until, " +
+            "j.startedAt = COALESCE(j.startedAt, :now) " +
+            "WHERE j.id = :id AND (j.status = :queued OR (j.status = :running AND j.claimedUntil <= :now))")
+    int claim(Long id, AdminBulkJobStatus queued, AdminBulkJobStatus running,
+              String owner, LocalDateTime now, LocalDateTime until);
+
+    @Query("SELECT j.id FROM AdminBulkJob j " +
+            "WHERE j.status = :queued OR (j.status = :running AND j.claimedUntil <= :now) ORDER BY j.id")
+    List<Long> findRunnableIds(AdminBulkJobStatus queued, AdminBulkJobStatus running,
+                               LocalDateTime now, Pageable pageable);
+
+    /**
+     * Record one chunk and move the cursor. Runs inside the chunk's transaction;
+     * 0 means the job was cancelled or taken over, and the chunk must roll back.
+     */
+    @Modifying
+    @Query("UPDATE AdminBulkJob j SET j.lastUserId = :lastUserId, j.processed = j.processed + :processed, " +
+            "j.succeeded = j.succeeded + :succeeded, j.skipped = j.skipped + :skipped, " +
+            "j.failed = j.failed + :failed, j.lastError = COALESCE(:error, j.lastError), j.claimedUntil = :until " +
+            "WHERE j.id = :id AND j.claimedBy = :owner AND j.status = :running")
+    int advance(Long id, String owner, AdminBulkJobStatus running, long lastUserId, long processed,
+                long succeeded, long skipped, long failed, String error, LocalDateTime until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminBulkJob j SET j.status = :status, j.lastError = COALESCE(:error, j.lastError), " +
+            "j.claimedBy = NULL, j.claimedUntil = NULL, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.claimedBy = :owner AND j.status = :running")
+    int finish(Long id, String owner, AdminBulkJobStatus running, AdminBulkJobStatus status,
+               String error, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminBulkJob j SET j.status = :cancelled, j.claimedBy = NULL, j.claimedUntil = NULL, " +
+            "j.finishedAt = :now WHERE j.id = :id AND j.status IN :cancellable")
+    int cancel(Long id, AdminBulkJobStatus cancelled, List<AdminBulkJobStatus> cancellable, LocalDateTime now);
+}
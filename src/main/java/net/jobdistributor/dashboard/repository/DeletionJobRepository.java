@@ -0,0 +1,59 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.DeletionJob;
+import net.jobdistributor.dashboard.entity.DeletionJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, Long> {
+
+    /**
+     * Claim a queued job, or one whose runner's claim ran out. Only one node wins.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeletionJob j SET j.status = :running, j.claimedBy = :owner, j.claimedUntil = :until, " +
+            "j.startedAt = COALESCE(j.startedAt, :now) " +
+            "WHERE j.id = :id AND (j.status = :queued OR (j.status = :running AND j.claimedUntil <= :now))")
+    int claim(Long id, DeletionJobStatus queued, DeletionJobStatus running,
+              String owner, LocalDateTime now, LocalDateTime until);
+
+    @Query("SELECT j.id FROM DeletionJob j " +
+            "WHERE j.status = :queued OR (j.status = :running AND j.claimedUntil <= :now) ORDER BY j.id")
+    List<Long> findRunnableIds(DeletionJobStatus queued, DeletionJobStatus running,
+                               LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(j) > 0 FROM DeletionJob j WHERE j.userId = :userId AND j.status IN :statuses")
+    boolean existsByUserIdAndStatusIn(Long userId, Collection<DeletionJobStatus> statuses);
+
+    // Runs inside the chunk's transaction, so the count commits with the rows it describes
+    @Modifying
+    @Query("UPDATE DeletionJob j SET j.loginAttemptsDeleted = j.loginAttemptsDeleted + :deleted, " +
+            "j.claimedUntil = :until WHERE j.id = :id AND j.claimedBy = :owner")
+    int addLoginAttemptsDeleted(Long id, String owner, long deleted, LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE DeletionJob j SET j.status = :completed, j.tokensDeleted = :tokens, " +
+            "j.passwordResetsDeleted = :passwordResets, j.emailsDeleted = :emails, " +
+            "j.passwordsDeleted = :passwords, j.usersDeleted = :users, " +
+            "j.claimedBy = NULL, j.claimedUntil = NULL, j.lastError = NULL, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.claimedBy = :owner")
+    int complete(Long id, String owner, DeletionJobStatus completed, long tokens, long passwordResets,
+                 long emails, long passwords, long users, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeletionJob j SET j.status = :failed, j.lastError = :error, " +
+            "j.claimedBy = NULL, j.claimedUntil = NULL, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.claimedBy = :owner")
+    int fail(Long id, String owner, DeletionJobStatus failed, String error, LocalDateTime now);
+}
@@ -0,0 +1,24 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.UserStatus;
+
+/**
+ * Rows a permanent deletion of one user would remove, counted in one query.
+ * Emails include soft-deleted ones; hard delete removes those too.
+ */
+public record DeletionPreviewCounts(Long userId,
+                                    UserStatus status,
+                                    Long emails,
+                                    Long passwords,
+                                    Long loginAttempts,
+                                    Long passwordResets,
+                                    Long blacklistedTokens,
+                                    Long refreshTokens,
+                                    Long oneTimeTokens) {
+
+    // Dependent rows plus the user row itself
+    public long totalRows() {
+        return 1 + emails + passwords + loginAttempts + passwordResets
+                + blacklistedTokens + refreshTokens + oneTimeTokens;
+    }
+}
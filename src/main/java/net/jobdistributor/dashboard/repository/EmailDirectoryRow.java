@@ -0,0 +1,6 @@
+package net.jobdistributor.dashboard.repository;
+
+/**
+ * Minimal email row used to build the in-memory EmailDirectory
+ */
+public record EmailDirectoryRow(Long id, String emailAddress, Long userId, Boolean isPrimary, Boolean isDeleted) {}
@@ -0,0 +1,100 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.EmailOutbox;
+import net.jobdistributor.dashboard.entity.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT o.id FROM EmailOutbox o WHERE o.status = :pending AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.priority ASC, o.id ASC")
+    List<Long> findDueIds(EmailOutboxStatus pending, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim due rows for one dispatcher. Rows another node claimed first are skipped.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :sending, o.claimedBy = :owner, o.claimedUntil = :until " +
+            "WHERE o.id IN :ids AND o.status = :pending AND o.nextAttemptAt <= :now")
+    int claim(Collection<Long> ids, EmailOutboxStatus pending, EmailOutboxStatus sending,
+              String owner, LocalDateTime now, LocalDateTime until);
+
+    @Query("SELECT o FROM EmailOutbox o WHERE o.claimedBy = :owner AND o.status = :sending " +
+            "ORDER BY o.priority ASC, o.id ASC")
+    List<EmailOutbox> findClaimed(String owner, EmailOutboxStatus sending);
+
+    /**
+     * Mark rows delivered. The body goes with it - it may carry a live one-time link.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :sent, o.sentAt = :now, o.attempts = o.attempts + 1, " +
+            "o.claimedBy = NULL, o.claimedUntil = NULL, o.lastError = NULL, o.body = '' " +
+            "WHERE o.id IN :ids AND o.claimedBy = :owner")
+    int markSent(Collection<Long> ids, EmailOutboxStatus sent, String owner, LocalDateTime now);
+
+    /**
+     * Record a failed attempt: the row goes back to PENDING until nextAttemptAt
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :pending, o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt, " +
+            "o.lastError = :error, o.claimedBy = NULL, o.claimedUntil = NULL " +
+            "WHERE o.id = :id AND o.claimedBy = :owner")
+    int markAttemptFailed(Long id, String owner, EmailOutboxStatus pending, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Give up on a row. nextAttemptAt records when, for the purge; the body is dropped as in markSent.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :failed, o.attempts = o.attempts + 1, o.nextAttemptAt = :now, " +
+            "o.lastError = :error, o.claimedBy = NULL, o.claimedUntil = NULL, o.body = '' " +
+            "WHERE o.id = :id AND o.claimedBy = :owner")
+    int markGaveUp(Long id, String owner, EmailOutboxStatus failed, LocalDateTime now, String error);
+
+    /**
+     * Put a claimed row back without counting an attempt (domain throttling)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :pending, o.nextAttemptAt = :nextAttemptAt, " +
+            "o.claimedBy = NULL, o.claimedUntil = NULL " +
+            "WHERE o.id = :id AND o.claimedBy = :owner")
+    int defer(Long id, String owner, EmailOutboxStatus pending, LocalDateTime nextAttemptAt);
+
+    /**
+     * Return rows whose dispatcher died mid-batch to the queue
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = :pending, o.claimedBy = NULL, o.claimedUntil = NULL " +
+            "WHERE o.status = :sending AND o.claimedUntil < :now")
+    int releaseExpiredClaims(EmailOutboxStatus sending, EmailOutboxStatus pending, LocalDateTime now);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Query("SELECT MIN(o.createdAt) FROM EmailOutbox o WHERE o.status = :status")
+    LocalDateTime findOldestCreatedAt(EmailOutboxStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = :sent AND o.sentAt < :before")
+    int deleteSentBefore(EmailOutboxStatus sent, LocalDateTime before);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = :failed AND o.nextAttemptAt < :before")
+    int deleteFailedBefore(EmailOutboxStatus failed, LocalDateTime before);
+}
@@ -1,19 +1,67 @@
 package net.jobdistributor.dashboard.repository;
 
 import net.jobdistributor.dashboard.entity.Email;
+import net.jobdistributor.dashboard.entity.UserStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface EmailRepository extends JpaRepository<Email, Long> {
 
+    // Includes soft-deleted addresses: a deactivated account keeps its address reserved
     Optional<Email> findByEmailAddress(String emailAddress);
 
+    // Legacy verification tokens only - new ones live in one_time_tokens
     Optional<Email> findByVerificationToken(String token);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE Email e SET e.verifiedAt = :now, e.verificationToken = NULL, e.tokenExpiresAt = NULL, " +
+            "e.updatedAt = :now WHERE e.id = :emailId")
+    int markVerified(Long emailId, LocalDateTime now);
+
     List<Email> findByUserIdAndIsDeletedFalse(Long userId);
 
+    // Soft delete / restore of all the user's addresses; returns how many changed
+    @Modifying
+    @Transactional
+    @Query("UPDATE Email e SET e.isDeleted = :deleted, e.updatedAt = :now " +
+            "WHERE e.user.id = :userId AND e.isDeleted <> :deleted")
+    int markDeletedByUserId(Long userId, boolean deleted, LocalDateTime now);
+
+    // Bulk variant that only touches users currently in the given status, so it
+    // agrees with a conditional status update run just before it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Email e SET e.isDeleted = :deleted, e.updatedAt = :now " +
+            "WHERE e.isDeleted <> :deleted AND e.user.id IN " +
+            "(SELECT u.id FROM User u WHERE u.id IN :userIds AND u.status = :userStatus)")
+    int markDeletedByUserIdsWithStatus(Collection<Long> userIds, UserStatus userStatus, boolean deleted,
+                                       LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Email e WHERE e.user.id = :userId")
+    int deleteByUserId(Long userId);
+
     Optional<Email> findByUserIdAndIsPrimaryTrueAndIsDeletedFalse(Long userId);
+
+    // Directory load: keyset pages by id, no entity hydration
+    @Query("SELECT new net.jobdistributor.dashboard.repository.EmailDirectoryRow(" +
+            "e.id, e.emailAddress, e.user.id, e.isPrimary, e.isDeleted) " +
+            "FROM Email e WHERE e.id > :afterId ORDER BY e.id")
+    List<EmailDirectoryRow> findDirectoryRows(Long afterId, Pageable pageable);
+
+    @Query("SELECT new net.jobdistributor.dashboard.repository.EmailDirectoryRow(" +
+            "e.id, e.emailAddress, e.user.id, e.isPrimary, e.isDeleted) " +
+            "FROM Email e WHERE e.user.id = :userId")
+    List<EmailDirectoryRow> findDirectoryRowsByUserId(Long userId);
 }
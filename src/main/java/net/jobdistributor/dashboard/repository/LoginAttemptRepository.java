@@ -1,6 +1,7 @@
 package net.jobdistributor.dashboard.repository;
 
 import net.jobdistributor.dashboard.entity.LoginAttempt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,10 +24,15 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
     @Query("SELECT la FROM LoginAttempt la WHERE la.ipAddress = :ipAddress AND la.createdAt >= :since")
     List<LoginAttempt> findByIpAddressAndCreatedAtAfter(String ipAddress, LocalDateTime since);
 
+    // Account deletion works through a user's history in id chunks so no single
+    // statement holds locks on a long range of the index
+    @Query("SELECT la.id FROM LoginAttempt la WHERE la.userId = :userId ORDER BY la.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
     @Modifying
     @Transactional
-    @Query("DELETE FROM LoginAttempt la WHERE la.userId = :userId")
-    void deleteByUserId(Long userId);
+    @Query("DELETE FROM LoginAttempt la WHERE la.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
 
     @Query("SELECT COUNT(la) FROM LoginAttempt la WHERE la.userId = :userId")
     long countByUserId(Long userId);
@@ -0,0 +1,43 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything login needs about a user, read in one query
+ * (user row + primary email + current password hash).
+ * encryptedPassword and passwordId are null if the user has no password.
+ */
+public record LoginCredentials(Long userId,
+                               String firstName,
+                               String lastName,
+                               String organization,
+                               String jobRole,
+                               String profileUrl,
+                               UserStatus status,
+                               Long tokenGeneration,
+                               LocalDateTime emailVerifiedAt,
+                               LocalDateTime lastLoginAt,
+                               String lastLoginIp,
+                               Integer failedLoginAttempts,
+                               LocalDateTime lockedUntil,
+                               LocalDateTime createdAt,
+                               LocalDateTime updatedAt,
+                               String email,
+                               Long passwordId,
+                               String encryptedPassword) {
+
+    public boolean isLocked(LocalDateTime now) {
+        return lockedUntil != null && lockedUntil.isAfter(now);
+    }
+
+    /**
+     * The same user as it looks after recordSuccessfulLogin
+     */
+    public LoginCredentials withSuccessfulLogin(LocalDateTime loginAt, String ipAddress) {
+        return new LoginCredentials(userId, firstName, lastName, organization, jobRole, profileUrl,
+                status, tokenGeneration, emailVerifiedAt, loginAt, ipAddress, 0, null,
+                createdAt, loginAt, email, passwordId, encryptedPassword);
+    }
+}
@@ -0,0 +1,53 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.OneTimeToken;
+import net.jobdistributor.dashboard.entity.OneTimeTokenPurpose;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OneTimeTokenRepository extends JpaRepository<OneTimeToken, Long> {
+
+    /**
+     * Redeem a token. Returns 1 for exactly one caller; 0 if the token is unknown,
+     * belongs to another subject or purpose, has expired or was already used.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OneTimeToken t SET t.usedAt = :now WHERE t.tokenHash = :tokenHash AND t.purpose = :purpose " +
+            "AND t.subjectId = :subjectId AND t.usedAt IS NULL AND t.expiresAt > :now")
+    int consume(byte[] tokenHash, OneTimeTokenPurpose purpose, Long subjectId, LocalDateTime now);
+
+    @Query("SELECT COUNT(t) > 0 FROM OneTimeToken t WHERE t.tokenHash = :tokenHash AND t.purpose = :purpose " +
+            "AND t.subjectId = :subjectId AND t.usedAt IS NULL AND t.expiresAt > :now")
+    boolean isRedeemable(byte[] tokenHash, OneTimeTokenPurpose purpose, Long subjectId, LocalDateTime now);
+
+    /**
+     * Use up every outstanding token of a purpose for a subject (a newer one replaces them)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OneTimeToken t SET t.usedAt = :now WHERE t.purpose = :purpose AND t.subjectId = :subjectId " +
+            "AND t.usedAt IS NULL")
+    int revokeOutstanding(OneTimeTokenPurpose purpose, Long subjectId, LocalDateTime now);
+
+    @Query("SELECT t.id FROM OneTimeToken t WHERE t.expiresAt < :now ORDER BY t.expiresAt")
+    List<Long> findExpiredIds(LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OneTimeToken t WHERE t.id IN :ids")
+    int deleteByIdIn(List<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OneTimeToken t WHERE t.userId = :userId")
+    int deleteByUserId(Long userId);
+}
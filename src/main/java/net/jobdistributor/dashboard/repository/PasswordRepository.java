@@ -2,8 +2,11 @@ package net.jobdistributor.dashboard.repository;
 
 import net.jobdistributor.dashboard.entity.Password;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +21,15 @@ public interface PasswordRepository extends JpaRepository<Password, Long> {
 
     @Query("SELECT p FROM Password p WHERE p.user.id = :userId ORDER BY p.createdAt DESC LIMIT :limit")
     List<Password> findRecentByUserId(Long userId, int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Password p WHERE p.user.id = :userId")
+    int deleteByUserId(Long userId);
+
+    // Rehash-on-login: only replaces the hash that was verified, never a newer one
+    @Modifying
+    @Query("UPDATE Password p SET p.encryptedPassword = :newHash, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.encryptedPassword = :oldHash")
+    int replaceHash(Long id, String oldHash, String newHash, LocalDateTime now);
 }
@@ -20,8 +20,13 @@ public interface PasswordResetRepository extends JpaRepository<PasswordReset, Lo
 
     void deleteByUserIdAndUsedAtIsNull(Long userId);
 
+    // Only one concurrent reset can consume the token
+    @Modifying
+    @Query("UPDATE PasswordReset pr SET pr.usedAt = :now WHERE pr.id = :id AND pr.usedAt IS NULL")
+    int markUsed(Long id, LocalDateTime now);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM PasswordReset pr WHERE pr.userId = :userId")
-    void deleteByUserId(Long userId);
+    int deleteByUserId(Long userId);
 }
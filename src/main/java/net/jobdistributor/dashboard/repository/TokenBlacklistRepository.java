@@ -1,28 +1,43 @@
 package net.jobdistributor.dashboard.repository;
 
 import net.jobdistributor.dashboard.entity.TokenBlacklist;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, Long> {
 
-    boolean existsByTokenHash(String tokenHash);
+    boolean existsByTokenHash(byte[] tokenHash);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    @Query("SELECT tb.tokenHash FROM TokenBlacklist tb WHERE tb.expiresAt > :now")
+    List<byte[]> findActiveTokenHashes(LocalDateTime now);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM TokenBlacklist tb WHERE tb.expiresAt < :now")
     void deleteExpiredTokens(LocalDateTime now);
 
+    @Query("SELECT tb.id FROM TokenBlacklist tb WHERE tb.expiresAt < :now ORDER BY tb.expiresAt")
+    List<Long> findExpiredIds(LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenBlacklist tb WHERE tb.id IN :ids")
+    int deleteByIdIn(List<Long> ids);
+
     @Query("SELECT COUNT(tb) FROM TokenBlacklist tb WHERE tb.userId = :userId")
     long countByUserId(Long userId);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM TokenBlacklist tb WHERE tb.userId = :userId")
-    void deleteByUserId(Long userId);
+    int deleteByUserId(Long userId);
 }
@@ -2,24 +2,98 @@ package net.jobdistributor.dashboard.repository;
 
 import net.jobdistributor.dashboard.entity.User;
 import net.jobdistributor.dashboard.entity.UserStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    @Query("SELECT u FROM User u JOIN u.emails e WHERE e.emailAddress = :email AND e.isPrimary = true")
+    // Admin bulk job filter; a null parameter matches every user
+    String BULK_JOB_FILTER = "(:organization IS NULL OR u.organization = :organization) " +
+            "AND (:status IS NULL OR u.status = :status) " +
+            "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR u.createdAt < :createdTo) " +
+            "AND (:lastLoginFrom IS NULL OR u.lastLoginAt >= :lastLoginFrom) " +
+            "AND (:lastLoginTo IS NULL OR u.lastLoginAt < :lastLoginTo)";
+
+    @Query("SELECT u FROM User u JOIN u.emails e " +
+            "WHERE e.emailAddress = :email AND e.isPrimary = true AND e.isDeleted = false")
     Optional<User> findByPrimaryEmail(String email);
 
     Optional<User> findByIdAndStatus(Long id, UserStatus status);
 
-    @Query("SELECT u FROM User u JOIN u.emails e WHERE e.emailAddress = :email")
+    // Login read path: user, primary email and current password hash in one statement.
+    // Deliberately sees soft-deleted emails so a deactivated account can sign in and restore itself;
+    // joins Email as an entity because a join on u.emails carries the collection's @SQLRestriction.
+    @Query("SELECT new net.jobdistributor.dashboard.repository.LoginCredentials(" +
+            "u.id, u.firstName, u.lastName, u.organization, u.jobRole, u.profileUrl, u.status, " +
+            "u.tokenGeneration, u.emailVerifiedAt, u.lastLoginAt, u.lastLoginIp, u.failedLoginAttempts, " +
+            "u.lockedUntil, u.createdAt, u.updatedAt, e.emailAddress, p.id, p.encryptedPassword) " +
+            "FROM User u JOIN Email e ON e.user = u " +
+            "LEFT JOIN u.passwords p ON p.createdAt = " +
+            "(SELECT MAX(p2.createdAt) FROM Password p2 WHERE p2.user = u) " +
+            "WHERE e.emailAddress = :email AND e.isPrimary = true " +
+            "ORDER BY p.id DESC LIMIT 1")
+    Optional<LoginCredentials> findLoginCredentials(String email);
+
+    // Failed password: increment and lock in one conditional statement.
+    // lockedUntil is assigned first so it sees the pre-increment count on every database
+    // (MySQL evaluates SET left to right, standard SQL uses the old values throughout).
+    // Attempts against an already locked account are not counted.
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET " +
+            "u.lockedUntil = CASE WHEN COALESCE(u.failedLoginAttempts, 0) + 1 >= :maxAttempts " +
+            "THEN :lockUntil ELSE u.lockedUntil END, " +
+            "u.failedLoginAttempts = COALESCE(u.failedLoginAttempts, 0) + 1, " +
+            "u.updatedAt = :now " +
+            "WHERE u.id = :userId AND (u.lockedUntil IS NULL OR u.lockedUntil <= :now)")
+    int recordFailedLogin(Long userId, int maxAttempts, LocalDateTime lockUntil, LocalDateTime now);
+
+    // Login write path: one statement for a successful login
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLoginAt = :now, u.lastLoginIp = :ipAddress, u.failedLoginAttempts = 0, " +
+            "u.lockedUntil = NULL, u.updatedAt = :now WHERE u.id = :userId")
+    void recordSuccessfulLogin(Long userId, String ipAddress, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.status = :status, u.emailVerifiedAt = :now, u.updatedAt = :now " +
+            "WHERE u.id = (SELECT e.user.id FROM Email e WHERE e.id = :emailId)")
+    int markEmailVerified(Long emailId, UserStatus status, LocalDateTime now);
+
+    // Bulk form of deleteById: no load, and the affected-row count comes back
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM User u WHERE u.id = :userId")
+    int deleteUserById(Long userId);
+
+    @Query("SELECT u FROM User u JOIN u.emails e WHERE e.emailAddress = :email AND e.isDeleted = false")
     Optional<User> findByAnyEmail(String email);
 
+    // Soft delete: 0 if the user is missing or already inactive
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.status = :inactive, u.updatedAt = :now " +
+            "WHERE u.id = :userId AND u.status <> :inactive")
+    int deactivate(Long userId, UserStatus inactive, LocalDateTime now);
+
+    // Restore: 0 if the user is missing or not inactive
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.status = :active, u.updatedAt = :now " +
+            "WHERE u.id = :userId AND u.status = :inactive")
+    int reactivate(Long userId, UserStatus inactive, UserStatus active, LocalDateTime now);
+
     // ADD THIS METHOD FOR LOGOUT-ALL
     @Modifying
     @Transactional
@@ -29,4 +103,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // HELPER METHOD TO GET CURRENT GENERATION
     @Query("SELECT u.tokenGeneration FROM User u WHERE u.id = :userId")
     Optional<Long> getTokenGeneration(Long userId);
-}
\ No newline at end of file
+
+    // Deletion preview: every per-table count as a scalar subquery on the user_id indexes,
+    // so the whole preview is one round trip. Empty if the user does not exist.
+    @Query("SELECT new net.jobdistributor.dashboard.repository.DeletionPreviewCounts(u.id, u.status, " +
+            "(SELECT COUNT(e) FROM Email e WHERE e.user.id = u.id), " +
+            "(SELECT COUNT(p) FROM Password p WHERE p.user.id = u.id), " +
+            "(SELECT COUNT(la) FROM LoginAttempt la WHERE la.userId = u.id), " +
+            "(SELECT COUNT(pr) FROM PasswordReset pr WHERE pr.userId = u.id), " +
+            "(SELECT COUNT(tb) FROM TokenBlacklist tb WHERE tb.userId = u.id), " +
+            "(SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.userId = u.id), " +
+            "(SELECT COUNT(ot) FROM OneTimeToken ot WHERE ot.userId = u.id)) " +
+            "FROM User u WHERE u.id = :userId")
+    Optional<DeletionPreviewCounts> findDeletionPreviewCounts(Long userId);
+
+    // Admin bulk jobs: keyset pages of matching ids, and the size of the match at job creation
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND " + BULK_JOB_FILTER + " ORDER BY u.id")
+    List<Long> findBulkJobUserIds(Long afterId, String organization, UserStatus status,
+                                  LocalDateTime createdFrom, LocalDateTime createdTo,
+                                  LocalDateTime lastLoginFrom, LocalDateTime lastLoginTo, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE " + BULK_JOB_FILTER)
+    long countBulkJobUsers(String organization, UserStatus status,
+                           LocalDateTime createdFrom, LocalDateTime createdTo,
+                           LocalDateTime lastLoginFrom, LocalDateTime lastLoginTo);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.status <> :status")
+    List<Long> findIdsByIdInAndStatusNot(Collection<Long> ids, UserStatus status);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.status = :status")
+    List<Long> findIdsByIdInAndStatus(Collection<Long> ids, UserStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.status = :inactive, u.updatedAt = :now " +
+            "WHERE u.id IN :ids AND u.status <> :inactive")
+    int deactivateAll(Collection<Long> ids, UserStatus inactive, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.status = :active, u.updatedAt = :now " +
+            "WHERE u.id IN :ids AND u.status = :inactive")
+    int reactivateAll(Collection<Long> ids, UserStatus inactive, UserStatus active, LocalDateTime now);
+}
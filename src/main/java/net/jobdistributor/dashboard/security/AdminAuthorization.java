@@ -0,0 +1,20 @@
+package net.jobdistributor.dashboard.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Admin rights until roles exist: the user ids listed in app.admin.user-ids
+ */
+@Component
+public class AdminAuthorization {
+
+    @Value("${app.admin.user-ids:}")
+    private List<Long> adminUserIds;
+
+    public boolean isAdmin(Long userId) {
+        return userId != null && adminUserIds != null && adminUserIds.contains(userId);
+    }
+}
@@ -0,0 +1,84 @@
+package net.jobdistributor.dashboard.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client address for rate limiting and login history.
+ *
+ * X-Forwarded-For and X-Real-IP are set by whoever sends the request, so they
+ * are only believed when the connection comes from one of
+ * app.security.trusted-proxies (addresses or CIDR ranges; empty by default, i.e.
+ * the socket address is always used). X-Forwarded-For is read right to left and
+ * the first address that is not one of our proxies is the client - entries
+ * further left were supplied by the client and prove nothing.
+ */
+@Component
+public class ClientIpResolver {
+
+    @Value("${app.security.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    private List<IpAddressMatcher> proxyMatchers = List.of();
+
+    @PostConstruct
+    public void init() {
+        List<IpAddressMatcher> matchers = new ArrayList<>();
+        if (trustedProxies != null) {
+            for (String proxy : trustedProxies) {
+                if (!proxy.isBlank()) {
+                    matchers.add(new IpAddressMatcher(proxy.trim()));
+                }
+            }
+        }
+        proxyMatchers = List.copyOf(matchers);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddress)) {
+            return remoteAddress;
+        }
+
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (hop.isEmpty() || "unknown".equalsIgnoreCase(hop)) {
+                    break;
+                }
+                if (!isTrustedProxy(hop)) {
+                    return hop;
+                }
+            }
+        }
+
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank() && !"unknown".equalsIgnoreCase(realIp.trim())) {
+            return realIp.trim();
+        }
+
+        return remoteAddress;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher matcher : proxyMatchers) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not an IP address
+                return false;
+            }
+        }
+        return false;
+    }
+}
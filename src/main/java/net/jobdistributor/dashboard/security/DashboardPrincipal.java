@@ -0,0 +1,45 @@
+package net.jobdistributor.dashboard.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.security.Principal;
+
+/**
+ * The authenticated user as described by their verified access token.
+ * Endpoints that only need identity and profile basics read it from
+ * AuthenticationUtil instead of loading the User entity.
+ *
+ * Values are as of token issue time; anything that must be current
+ * (emails, organization, etc.) still has to come from the database.
+ */
+public record DashboardPrincipal(Long userId,
+                                 String email,
+                                 String firstName,
+                                 String lastName,
+                                 String status,
+                                 Long tokenGeneration) implements Principal {
+
+    public static DashboardPrincipal from(VerifiedToken token) {
+        Claims claims = token.claims();
+        return new DashboardPrincipal(
+                token.userId(),
+                token.email(),
+                claims.get("firstName", String.class),
+                claims.get("lastName", String.class),
+                claims.get("status", String.class),
+                token.tokenGeneration()
+        );
+    }
+
+    public String fullName() {
+        return firstName + " " + (lastName != null ? lastName : "");
+    }
+
+    /**
+     * Authentication.getName() - kept as the user ID, as it was when the principal was a Long
+     */
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -47,15 +47,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // - JWT signature and expiration
             // - Token blacklist checking (individual logout)
             // - Token generation checking (logout-all)
-            if (jwtService.validateToken(token)) {
-                Long userId = jwtService.getUserIdFromToken(token);
-                String email = jwtService.getEmailFromToken(token);
+            // The token is parsed once here and the result is kept on the request
+            VerifiedToken verified = jwtService.verify(token);
+            if (verified != null) {
+                Long userId = verified.userId();
+                String email = verified.email();
 
                 if (userId != null && email != null) {
+                    request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified);
+
                     // Create authentication object
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
-                                    userId,  // Principal (user ID)
+                                    DashboardPrincipal.from(verified),  // Principal (claims from the token)
                                     null,    // Credentials (not needed for JWT)
                                     new ArrayList<>()  // Authorities (can add roles here later)
                             );
@@ -88,6 +92,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Skip JWT filter for public authentication endpoints
         return path.equals("/api/auth/login") ||
+                path.equals("/api/auth/refresh") ||
                 path.equals("/api/auth/register") ||
                 path.equals("/api/auth/forgot-password") ||
                 path.equals("/api/auth/reset-password") ||
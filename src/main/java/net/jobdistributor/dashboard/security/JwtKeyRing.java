@@ -0,0 +1,231 @@
+package net.jobdistributor.dashboard.security;
+
+import io.jsonwebtoken.JweHeader;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Holds the HMAC keys used to sign and verify JWTs.
+ *
+ * Keys are built once and looked up by the token's "kid" header, so verifying a
+ * token never re-derives a key or builds a new parser. Tokens issued before key
+ * ids existed carry no "kid" and are verified with the app.jwt.secret key.
+ *
+ * Rotation without restart:
+ * 1. Add the new key (it starts verifying immediately)
+ * 2. Make it active (new tokens are signed with it)
+ * 3. Retire the old key once its tokens have expired
+ *
+ * Keys can be changed through {@link #rotate}/{@link #retire} or through the
+ * optional app.jwt.keys-file, which is re-read when it changes:
+ *   active=2025q3
+ *   key.2025q2=...
+ *   key.2025q3=...
+ * Each reload rebuilds the key set from the configured keys (app.jwt.secret,
+ * app.jwt.keys) plus the file, so deleting a key from the file retires it.
+ * Keys added through the API are dropped by the next file change.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    // Extra keys as "kid:secret,kid:secret"
+    @Value("${app.jwt.keys:}")
+    private String configuredKeys;
+
+    @Value("${app.jwt.active-key-id:" + DEFAULT_KEY_ID + "}")
+    private String configuredActiveKeyId;
+
+    @Value("${app.jwt.keys-file:}")
+    private String keysFile;
+
+    private volatile KeySet keySet;
+
+    // app.jwt.secret and app.jwt.keys; the base every keys-file reload starts from
+    private Map<String, SecretKey> configuredKeySet;
+
+    private volatile long keysFileLastModified = -1;
+
+    // Thread-safe and immutable; the locator always reads the current key set
+    private final JwtParser parser = Jwts.parser()
+            .keyLocator(new KeyRingLocator())
+            .build();
+
+    @PostConstruct
+    public void init() {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(DEFAULT_KEY_ID, toKey(jwtSecret));
+
+        if (configuredKeys != null && !configuredKeys.isBlank()) {
+            for (String entry : configuredKeys.split(",")) {
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalStateException("Invalid app.jwt.keys entry, expected kid:secret");
+                }
+                keys.put(entry.substring(0, separator).trim(), toKey(entry.substring(separator + 1).trim()));
+            }
+        }
+
+        this.configuredKeySet = Collections.unmodifiableMap(keys);
+        this.keySet = new KeySet(keys, configuredActiveKeyId);
+        reloadKeysFile();
+
+        logger.info("JWT key ring initialized with keys {} (active: {})",
+                keySet.keys().keySet(), keySet.activeKeyId());
+    }
+
+    /**
+     * Shared parser that verifies signatures against the key ring
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    /**
+     * Key id and key that new tokens should be signed with
+     */
+    public SigningKey activeSigningKey() {
+        KeySet current = keySet;
+        return new SigningKey(current.activeKeyId(), current.keys().get(current.activeKeyId()));
+    }
+
+    public Set<String> keyIds() {
+        return keySet.keys().keySet();
+    }
+
+    /**
+     * Add or replace a key and optionally make it the active signing key.
+     * Existing tokens signed with other keys stay valid.
+     */
+    public synchronized void rotate(String keyId, String secret, boolean activate) {
+        Map<String, SecretKey> keys = new LinkedHashMap<>(keySet.keys());
+        keys.put(keyId, toKey(secret));
+        String activeKeyId = activate ? keyId : keySet.activeKeyId();
+        keySet = new KeySet(keys, activeKeyId);
+        logger.info("JWT key {} added (active: {})", keyId, activeKeyId);
+    }
+
+    /**
+     * Remove a key - tokens signed with it stop validating
+     */
+    public synchronized void retire(String keyId) {
+        if (keyId.equals(keySet.activeKeyId())) {
+            throw new IllegalArgumentException("Cannot retire the active signing key");
+        }
+        Map<String, SecretKey> keys = new LinkedHashMap<>(keySet.keys());
+        if (keys.remove(keyId) != null) {
+            keySet = new KeySet(keys, keySet.activeKeyId());
+            logger.info("JWT key {} retired", keyId);
+        }
+    }
+
+    /**
+     * Pick up changes to app.jwt.keys-file without restarting
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.keys-file-poll-ms:60000}")
+    public synchronized void reloadKeysFile() {
+        if (keysFile == null || keysFile.isBlank()) {
+            return;
+        }
+
+        Path path = Path.of(keysFile);
+        try {
+            if (!Files.exists(path)) {
+                logger.warn("JWT keys file {} not found", keysFile);
+                return;
+            }
+
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            if (lastModified == keysFileLastModified) {
+                return;
+            }
+
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            }
+
+            // Rebuilt, not merged: a key removed from the file stops verifying
+            Map<String, SecretKey> keys = new LinkedHashMap<>(configuredKeySet);
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith("key.")) {
+                    keys.put(name.substring(4), toKey(properties.getProperty(name).trim()));
+                }
+            }
+
+            String activeKeyId = properties.getProperty("active", configuredActiveKeyId).trim();
+            keySet = new KeySet(keys, activeKeyId);
+            keysFileLastModified = lastModified;
+
+            logger.info("JWT keys reloaded from {} (keys: {}, active: {})", keysFile, keys.keySet(), activeKeyId);
+        } catch (IOException | RuntimeException e) {
+            // Keep the current keys - a bad file must not log everyone out
+            logger.error("Failed to reload JWT keys from {}: {}", keysFile, e.getMessage());
+        }
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ========================================
+    // KEY SET
+    // ========================================
+
+    public record SigningKey(String keyId, SecretKey key) {}
+
+    private record KeySet(Map<String, SecretKey> keys, String activeKeyId) {
+        KeySet {
+            if (!keys.containsKey(activeKeyId)) {
+                throw new IllegalStateException("Active JWT key id '" + activeKeyId + "' has no key");
+            }
+            keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+        }
+    }
+
+    private class KeyRingLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KEY_ID;
+            SecretKey key = keySet.keys().get(keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown JWT signing key id: " + keyId);
+            }
+            return key;
+        }
+
+        @Override
+        protected Key locate(JweHeader header) {
+            throw new UnsupportedJwtException("Encrypted JWTs are not supported");
+        }
+    }
+}
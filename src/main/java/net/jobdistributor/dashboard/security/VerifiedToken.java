@@ -0,0 +1,44 @@
+package net.jobdistributor.dashboard.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * A JWT that has been parsed, signature-checked and revocation-checked exactly once.
+ * JwtAuthenticationFilter stores it on the request so controllers and services
+ * can read claims without parsing the token again.
+ */
+public record VerifiedToken(String token,
+                            Claims claims,
+                            byte[] tokenHash,
+                            Long userId,
+                            String email,
+                            Long tokenGeneration,
+                            Date issuedAt,
+                            Date expiresAt) {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    /**
+     * Get the token verified for the current request, or null if the request
+     * was not authenticated with a valid JWT
+     */
+    public static VerifiedToken from(HttpServletRequest request) {
+        Object attribute = request.getAttribute(REQUEST_ATTRIBUTE);
+        return attribute instanceof VerifiedToken verified ? verified : null;
+    }
+
+    /**
+     * Expiration as LocalDateTime (used for blacklist storage)
+     */
+    public LocalDateTime expiresAtLocal() {
+        if (expiresAt == null) {
+            return LocalDateTime.now().plusDays(1);
+        }
+        return expiresAt.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
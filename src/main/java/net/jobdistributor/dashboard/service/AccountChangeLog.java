@@ -0,0 +1,215 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.entity.AccountChangeEvent;
+import net.jobdistributor.dashboard.entity.AccountChangeType;
+import net.jobdistributor.dashboard.repository.AccountChangeEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Propagates revocations and email changes between dashboard nodes through the
+ * shared database.
+ *
+ * LogoutService writes an account_change_events row in the same transaction as
+ * the revocation (signup and account deletion do the same for emails). Every
+ * node polls the table with an id cursor and applies new events to its local
+ * TokenBlacklistIndex, TokenGenerationCache and EmailDirectory.
+ *
+ * Staleness guarantee: after each successful poll the local caches are trusted
+ * for app.change-log.max-staleness-ms from the poll's start. If polling stops
+ * (database trouble, stuck thread) the caches fall back to the database once
+ * that deadline passes, so a revocation on another node is honoured on this
+ * node within max-staleness at worst.
+ *
+ * IDENTITY values can commit out of order, so the cursor never moves past a gap
+ * in the ids until the event after the gap is older than the commit grace
+ * period. Events above a gap are re-applied on the next poll (applying is
+ * idempotent).
+ *
+ * The starting cursor is read at bean initialisation, before the caches take
+ * their startup snapshots (on ApplicationReadyEvent), and is held back by the
+ * commit grace period. Every event committed after a snapshot is therefore
+ * above the cursor and replayed by the first poll.
+ */
+@Service
+public class AccountChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountChangeLog.class);
+
+    @Autowired
+    private AccountChangeEventRepository accountChangeEventRepository;
+
+    @Autowired
+    private TokenBlacklistIndex tokenBlacklistIndex;
+
+    @Autowired
+    private TokenGenerationCache tokenGenerationCache;
+
+    @Autowired
+    private EmailDirectory emailDirectory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.change-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.change-log.max-staleness-ms:5000}")
+    private long maxStalenessMillis;
+
+    @Value("${app.change-log.commit-grace-ms:10000}")
+    private long commitGraceMillis;
+
+    @Value("${app.change-log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.change-log.retention-hours:48}")
+    private long retentionHours;
+
+    // Highest id below which every event has been applied (or is in the caches' snapshots)
+    private volatile Long cursor;
+
+    private volatile long lastSuccessfulPollAt = 0;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            // Nothing is trusted until the first poll has succeeded
+            tokenBlacklistIndex.trustUntil(0);
+            tokenGenerationCache.trustUntil(0);
+            emailDirectory.trustUntil(0);
+
+            cursor = accountChangeEventRepository.findMaxIdCreatedBefore(
+                    LocalDateTime.now().minusNanos(commitGraceMillis * 1_000_000));
+        }
+
+        Gauge.builder("auth.change_log.lag", this, AccountChangeLog::lagMillis)
+                .baseUnit("milliseconds")
+                .description("Time since the last successful change-log poll")
+                .register(meterRegistry);
+    }
+
+    // ========================================
+    // WRITE SIDE (called inside the revocation transaction)
+    // ========================================
+
+    @Transactional
+    public void recordTokenRevoked(Long userId, byte[] tokenHash) {
+        if (enabled) {
+            accountChangeEventRepository.save(new AccountChangeEvent(AccountChangeType.TOKEN_REVOKED, userId, tokenHash));
+        }
+    }
+
+    @Transactional
+    public void recordGenerationChanged(Long userId) {
+        if (enabled) {
+            accountChangeEventRepository.save(new AccountChangeEvent(AccountChangeType.GENERATION_CHANGED, userId, null));
+        }
+    }
+
+    @Transactional
+    public void recordEmailsChanged(Long userId) {
+        if (enabled) {
+            accountChangeEventRepository.save(new AccountChangeEvent(AccountChangeType.EMAILS_CHANGED, userId, null));
+        }
+    }
+
+    @Transactional
+    public void recordUserRemoved(Long userId) {
+        if (enabled) {
+            accountChangeEventRepository.save(new AccountChangeEvent(AccountChangeType.USER_REMOVED, userId, null));
+        }
+    }
+
+    // ========================================
+    // READ SIDE (every node)
+    // ========================================
+
+    @Scheduled(fixedDelayString = "${app.change-log.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+
+        long pollStartedAt = System.currentTimeMillis();
+        try {
+            List<AccountChangeEvent> events;
+            do {
+                events = accountChangeEventRepository.findAfter(cursor, PageRequest.of(0, batchSize));
+                long newCursor = applyAll(events);
+                if (newCursor == cursor) {
+                    break;
+                }
+                cursor = newCursor;
+            } while (events.size() == batchSize);
+
+            lastSuccessfulPollAt = pollStartedAt;
+            tokenBlacklistIndex.trustUntil(pollStartedAt + maxStalenessMillis);
+            tokenGenerationCache.trustUntil(pollStartedAt + maxStalenessMillis);
+            emailDirectory.trustUntil(pollStartedAt + maxStalenessMillis);
+        } catch (Exception e) {
+            logger.error("Change-log poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.change-log.purge-interval-ms:3600000}")
+    public void purgeOldEvents() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int removed = accountChangeEventRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+            if (removed > 0) {
+                logger.info("Purged {} account change events older than {}h", removed, retentionHours);
+            }
+        } catch (Exception e) {
+            logger.error("Change-log purge failed: {}", e.getMessage());
+        }
+    }
+
+    public long lagMillis() {
+        return lastSuccessfulPollAt == 0 ? -1 : System.currentTimeMillis() - lastSuccessfulPollAt;
+    }
+
+    private long applyAll(List<AccountChangeEvent> events) {
+        long newCursor = cursor;
+        boolean blockedByGap = false;
+        LocalDateTime graceLimit = LocalDateTime.now().minusNanos(commitGraceMillis * 1_000_000);
+
+        for (AccountChangeEvent event : events) {
+            apply(event);
+
+            if (blockedByGap) {
+                continue;
+            }
+            if (event.getId() == newCursor + 1 || event.getCreatedAt().isBefore(graceLimit)) {
+                newCursor = event.getId();
+            } else {
+                // A lower id may still be uncommitted - come back for it
+                blockedByGap = true;
+            }
+        }
+        return newCursor;
+    }
+
+    private void apply(AccountChangeEvent event) {
+        switch (event.getEventType()) {
+            case TOKEN_REVOKED -> tokenBlacklistIndex.recordRevocation(event.getTokenHash());
+            case GENERATION_CHANGED -> tokenGenerationCache.invalidate(event.getUserId());
+            case EMAILS_CHANGED -> emailDirectory.reloadUser(event.getUserId());
+            case USER_REMOVED -> emailDirectory.removeUser(event.getUserId());
+        }
+    }
+}
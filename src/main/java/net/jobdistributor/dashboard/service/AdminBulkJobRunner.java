@@ -0,0 +1,367 @@
+package net.jobdistributor.dashboard.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.jobdistributor.dashboard.dto.LogoutResult;
+import net.jobdistributor.dashboard.entity.*;
+import net.jobdistributor.dashboard.repository.AdminBulkJobRepository;
+import net.jobdistributor.dashboard.repository.DeletionJobRepository;
+import net.jobdistributor.dashboard.repository.EmailRepository;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.security.AdminAuthorization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs admin bulk jobs: walks the matching users in id order, one keyset chunk
+ * at a time, and paces itself to the job's rows-per-second limit so a large
+ * offboarding does not compete with live traffic.
+ *
+ * Deactivate and restore are set-based: each chunk is a couple of UPDATE
+ * statements committed together with the job's cursor and counters. Session
+ * revocation and hard deletion reuse the per-user paths (LogoutService and
+ * DeletionJobRunner); a failure there is counted and the job moves on.
+ *
+ * Jobs are claimed with a lease. A cancelled job stops at its next progress
+ * update; a job whose runner died is resumed from its cursor by the periodic scan.
+ */
+@Service
+public class AdminBulkJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminBulkJobRunner.class);
+
+    private static final List<DeletionJobStatus> ACTIVE_DELETION_STATUSES =
+            List.of(DeletionJobStatus.QUEUED, DeletionJobStatus.RUNNING);
+
+    @Autowired
+    private AdminBulkJobRepository adminBulkJobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    private DeletionJobRunner deletionJobRunner;
+
+    @Autowired
+    private LogoutService logoutService;
+
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private AdminAuthorization adminAuthorization;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.admin-bulk-jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admin-bulk-jobs.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.admin-bulk-jobs.claim-timeout-ms:120000}")
+    private long claimTimeoutMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admin-bulk-job-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        // An interrupted job stays claimed until its lease runs out, then resumes from its cursor
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Run the job in the background on this node
+     */
+    public void submit(Long jobId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Admin bulk job {} not started: runner is shut down", jobId);
+        }
+    }
+
+    /**
+     * Claim and run a job on the calling thread until it is done, cancelled or interrupted.
+     * Returns the job as it ended up, or null if another runner holds it.
+     */
+    public AdminBulkJob run(Long jobId) {
+        String owner = jobLockService.getNodeId();
+        LocalDateTime now = LocalDateTime.now();
+        if (adminBulkJobRepository.claim(jobId, AdminBulkJobStatus.QUEUED, AdminBulkJobStatus.RUNNING,
+                owner, now, leaseFrom(now)) == 0) {
+            return null;
+        }
+
+        AdminBulkJob job = adminBulkJobRepository.findById(jobId).orElseThrow();
+        int rowsPerSecond = Math.max(1, job.getRowsPerSecond());
+        int chunk = Math.max(1, Math.min(chunkSize, rowsPerSecond));
+        long cursor = job.getLastUserId();
+        long visited = 0;
+        long start = System.nanoTime();
+
+        logger.info("Admin bulk job {} ({}) started by user {} from user id {}",
+                jobId, job.getOperation(), job.getRequestedBy(), cursor);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = userRepository.findBulkJobUserIds(cursor, job.getFilterOrganization(),
+                        job.getFilterStatus(), job.getFilterCreatedFrom(), job.getFilterCreatedTo(),
+                        job.getFilterLastLoginFrom(), job.getFilterLastLoginTo(), PageRequest.of(0, chunk));
+                if (ids.isEmpty()) {
+                    adminBulkJobRepository.finish(jobId, owner, AdminBulkJobStatus.RUNNING,
+                            AdminBulkJobStatus.COMPLETED, null, LocalDateTime.now());
+                    break;
+                }
+
+                if (!processChunk(job, ids, owner)) {
+                    logger.info("Admin bulk job {} stopped: cancelled or claimed by another runner", jobId);
+                    break;
+                }
+                cursor = ids.get(ids.size() - 1);
+                visited += ids.size();
+
+                if (!throttle(visited, rowsPerSecond, start)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Admin bulk job {} failed at user id {}: {}", jobId, cursor, e.getMessage(), e);
+            adminBulkJobRepository.finish(jobId, owner, AdminBulkJobStatus.RUNNING, AdminBulkJobStatus.FAILED,
+                    describe(e), LocalDateTime.now());
+        }
+
+        AdminBulkJob ended = adminBulkJobRepository.findById(jobId).orElse(null);
+        if (ended != null) {
+            logger.info("Admin bulk job {} is {}: {} processed, {} succeeded, {} skipped, {} failed",
+                    jobId, ended.getStatus(), ended.getProcessed(), ended.getSucceeded(),
+                    ended.getSkipped(), ended.getFailed());
+        }
+        return ended;
+    }
+
+    /**
+     * Resume queued jobs and jobs whose runner stopped renewing its claim.
+     * Also runs at startup, which picks up jobs cut off by a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.admin-bulk-jobs.resume-interval-ms:60000}")
+    public void resumeStalled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Long> ids = adminBulkJobRepository.findRunnableIds(AdminBulkJobStatus.QUEUED,
+                    AdminBulkJobStatus.RUNNING, LocalDateTime.now(), PageRequest.of(0, 20));
+            ids.forEach(this::submit);
+        } catch (Exception e) {
+            logger.error("Admin bulk job resume scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the operation to one chunk and advance the cursor.
+     * Returns false if the job was cancelled or taken over meanwhile.
+     */
+    private boolean processChunk(AdminBulkJob job, List<Long> ids, String owner) {
+        long lastUserId = ids.get(ids.size() - 1);
+
+        // Admin accounts are never touched by a bulk job
+        List<Long> eligible = new ArrayList<>(ids.size());
+        for (Long userId : ids) {
+            if (!adminAuthorization.isAdmin(userId) && !userId.equals(job.getRequestedBy())) {
+                eligible.add(userId);
+            }
+        }
+
+        return switch (job.getOperation()) {
+            case DEACTIVATE, RESTORE -> Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                int changed = job.getOperation() == AdminBulkOperation.DEACTIVATE
+                        ? deactivate(eligible)
+                        : restore(eligible);
+                if (advance(job, owner, lastUserId, ids.size(), changed, ids.size() - changed, 0, null) == 0) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            }));
+            case REVOKE_SESSIONS, HARD_DELETE -> processOneByOne(job, ids, eligible, owner);
+        };
+    }
+
+    private int deactivate(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> targets = userRepository.findIdsByIdInAndStatusNot(userIds, UserStatus.INACTIVE);
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        // Count, emails and events follow the conditional UPDATE, not the read above:
+        // a user reactivated by someone else in between is a skip and keeps their emails
+        int changed = userRepository.deactivateAll(targets, UserStatus.INACTIVE, now);
+        emailRepository.markDeletedByUserIdsWithStatus(targets, UserStatus.INACTIVE, true, now);
+        userRepository.findIdsByIdInAndStatus(targets, UserStatus.INACTIVE)
+                .forEach(accountChangeLog::recordEmailsChanged);
+        return changed;
+    }
+
+    private int restore(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> targets = userRepository.findIdsByIdInAndStatus(userIds, UserStatus.INACTIVE);
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        int changed = userRepository.reactivateAll(targets, UserStatus.INACTIVE, UserStatus.ACTIVE, now);
+        emailRepository.markDeletedByUserIdsWithStatus(targets, UserStatus.ACTIVE, false, now);
+        userRepository.findIdsByIdInAndStatus(targets, UserStatus.ACTIVE)
+                .forEach(accountChangeLog::recordEmailsChanged);
+        return changed;
+    }
+
+    /**
+     * Per-user operations commit their progress after every user, which keeps the
+     * lease fresh however long a deletion takes and lets a cancel stop mid-chunk
+     */
+    private boolean processOneByOne(AdminBulkJob job, List<Long> ids, List<Long> eligible, String owner) {
+        for (Long userId : ids) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            if (!eligible.contains(userId) || alreadyBeingDeleted(job, userId)) {
+                if (!commitProgress(job, owner, userId, 0, 1, 0, null)) {
+                    return false;
+                }
+                continue;
+            }
+
+            String error;
+            try {
+                error = job.getOperation() == AdminBulkOperation.REVOKE_SESSIONS
+                        ? revokeSessions(userId)
+                        : hardDelete(userId, job.getRequestedBy());
+            } catch (Exception e) {
+                error = describe(e);
+            }
+            boolean advanced = error == null
+                    ? commitProgress(job, owner, userId, 1, 0, 0, null)
+                    : commitProgress(job, owner, userId, 0, 0, 1, truncate("User " + userId + ": " + error));
+            if (!advanced) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean commitProgress(AdminBulkJob job, String owner, long userId,
+                                   long succeeded, long skipped, long failed, String error) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                advance(job, owner, userId, 1, succeeded, skipped, failed, error) == 1));
+    }
+
+    // Null on success, otherwise what went wrong
+    private String revokeSessions(Long userId) {
+        LogoutResult result = logoutService.logoutAllDevices(userId);
+        return result.isSuccess() ? null : result.getMessage();
+    }
+
+    // The user's own DeletionJob finishes the account; a second one would race it
+    private boolean alreadyBeingDeleted(AdminBulkJob job, Long userId) {
+        return job.getOperation() == AdminBulkOperation.HARD_DELETE
+                && deletionJobRepository.existsByUserIdAndStatusIn(userId, ACTIVE_DELETION_STATUSES);
+    }
+
+    private String hardDelete(Long userId, Long requestedBy) {
+        DeletionJob deletionJob = deletionJobRepository.save(new DeletionJob(userId, requestedBy));
+        DeletionJob finished = deletionJobRunner.run(deletionJob.getId());
+        if (finished == null) {
+            return "deletion job " + deletionJob.getId() + " is held by another runner";
+        }
+        return finished.getStatus() == DeletionJobStatus.COMPLETED ? null : finished.getLastError();
+    }
+
+    private int advance(AdminBulkJob job, String owner, long lastUserId, long processed,
+                        long succeeded, long skipped, long failed, String error) {
+        return adminBulkJobRepository.advance(job.getId(), owner, AdminBulkJobStatus.RUNNING, lastUserId,
+                processed, succeeded, skipped, failed, error, leaseFrom(LocalDateTime.now()));
+    }
+
+    /**
+     * Sleep until the job is back under its rows-per-second budget.
+     * Returns false if interrupted.
+     */
+    private static boolean throttle(long visited, int rowsPerSecond, long startNanos) {
+        long dueNanos = startNanos + visited * TimeUnit.SECONDS.toNanos(1) / rowsPerSecond;
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(dueNanos - System.nanoTime());
+        if (waitMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(waitMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private LocalDateTime leaseFrom(LocalDateTime now) {
+        return now.plus(Duration.ofMillis(claimTimeoutMillis));
+    }
+
+    private static String describe(Exception e) {
+        return truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
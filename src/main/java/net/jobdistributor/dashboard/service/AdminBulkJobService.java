@@ -0,0 +1,109 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.dto.AdminBulkJobRequest;
+import net.jobdistributor.dashboard.entity.AdminBulkJob;
+import net.jobdistributor.dashboard.entity.AdminBulkJobStatus;
+import net.jobdistributor.dashboard.repository.AdminBulkJobRepository;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates, reports on and cancels admin bulk jobs. The work itself is done by AdminBulkJobRunner.
+ * Callers check admin rights first.
+ */
+@Service
+public class AdminBulkJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminBulkJobService.class);
+
+    private static final List<AdminBulkJobStatus> CANCELLABLE =
+            List.of(AdminBulkJobStatus.QUEUED, AdminBulkJobStatus.RUNNING);
+
+    @Autowired
+    private AdminBulkJobRepository adminBulkJobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdminBulkJobRunner adminBulkJobRunner;
+
+    @Value("${app.admin-bulk-jobs.default-rows-per-second:200}")
+    private int defaultRowsPerSecond;
+
+    @Value("${app.admin-bulk-jobs.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    public BulkJobResult createJob(AdminBulkJobRequest request, Long requestingUserId) {
+        if (!request.hasFilter()) {
+            return new BulkJobResult(false, "At least one filter is required", null);
+        }
+        int rowsPerSecond = request.getRowsPerSecond() != null ? request.getRowsPerSecond() : defaultRowsPerSecond;
+        if (rowsPerSecond > maxRowsPerSecond) {
+            return new BulkJobResult(false, "Rows per second must not exceed " + maxRowsPerSecond, null);
+        }
+
+        AdminBulkJob job = new AdminBulkJob(request.getOperation(), requestingUserId, rowsPerSecond);
+        job.setFilterOrganization(request.getOrganization() == null || request.getOrganization().isBlank()
+                ? null : request.getOrganization().trim());
+        job.setFilterStatus(request.getStatus());
+        job.setFilterCreatedFrom(request.getCreatedFrom());
+        job.setFilterCreatedTo(request.getCreatedTo());
+        job.setFilterLastLoginFrom(request.getLastLoginFrom());
+        job.setFilterLastLoginTo(request.getLastLoginTo());
+        job.setMatchedEstimate(userRepository.countBulkJobUsers(job.getFilterOrganization(), job.getFilterStatus(),
+                job.getFilterCreatedFrom(), job.getFilterCreatedTo(),
+                job.getFilterLastLoginFrom(), job.getFilterLastLoginTo()));
+        job = adminBulkJobRepository.save(job);
+
+        logger.info("Admin {} queued bulk job {} ({}) matching about {} users at {} rows/s",
+                requestingUserId, job.getId(), job.getOperation(), job.getMatchedEstimate(), rowsPerSecond);
+        adminBulkJobRunner.submit(job.getId());
+        return new BulkJobResult(true, "Bulk job queued", job);
+    }
+
+    public Optional<AdminBulkJob> getJob(Long jobId) {
+        return adminBulkJobRepository.findById(jobId);
+    }
+
+    /**
+     * Stop a queued or running job. Chunks already committed stay applied.
+     */
+    public BulkJobResult cancelJob(Long jobId, Long requestingUserId) {
+        if (adminBulkJobRepository.cancel(jobId, AdminBulkJobStatus.CANCELLED, CANCELLABLE, LocalDateTime.now()) == 0) {
+            return adminBulkJobRepository.existsById(jobId)
+                    ? new BulkJobResult(false, "Bulk job has already finished", null)
+                    : new BulkJobResult(false, "Bulk job not found", null);
+        }
+        logger.info("Admin {} cancelled bulk job {}", requestingUserId, jobId);
+        return new BulkJobResult(true, "Bulk job cancelled", adminBulkJobRepository.findById(jobId).orElse(null));
+    }
+
+    // ========================================
+    // RESULT CLASSES
+    // ========================================
+
+    public static class BulkJobResult {
+        private final boolean success;
+        private final String message;
+        private final AdminBulkJob job;
+
+        public BulkJobResult(boolean success, String message, AdminBulkJob job) {
+            this.success = success;
+            this.message = message;
+            this.job = job;
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public AdminBulkJob getJob() { return job; }
+    }
+}
@@ -0,0 +1,94 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.jobdistributor.dashboard.exception.PasswordHashingBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the database and token work of signup, login and password reset once
+ * the password hash is ready.
+ *
+ * Continuations attached with plain thenApply run on the thread that completed
+ * the future, i.e. a BCrypt worker. They would then wait for a JDBC connection
+ * there and leave the hashing pool idle behind the connection pool. Callers use
+ * thenApplyAsync(..., authCompletionExecutor) instead, so the two pools are
+ * sized and saturate independently. The pool is bounded like the hashing pool;
+ * when it is full, the call fails with PasswordHashingBusyException (503).
+ */
+@Service
+public class AuthCompletionExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthCompletionExecutor.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Roughly the JDBC pool size; more threads would only queue on Hikari
+    @Value("${app.auth.completion.threads:10}")
+    private int threads;
+
+    @Value("${app.auth.completion.queue-capacity:256}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-completion-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        rejected = Counter.builder("auth.completion.rejected")
+                .description("Post-hash steps rejected because the completion pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.completion.queue", executor, e -> e.getQueue().size())
+                .description("Post-hash steps waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.completion.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        logger.info("Auth completion pool started with {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        try {
+            executor.execute(command);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            // Completes the dependent future exceptionally
+            throw new PasswordHashingBusyException();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.exception.RateLimitExceededException;
+import net.jobdistributor.dashboard.util.SlidingWindowRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles the unauthenticated auth endpoints before they reach MySQL or BCrypt.
+ *
+ * Each request is counted against three keys - client IP, email, and IP+email -
+ * each with its own limit per sliding window (app.rate-limit.window-ms). IP
+ * limits stop floods from one source, email limits stop distributed guessing
+ * against one account (including unknown emails), and IP+email is the tight
+ * per-pair limit. A limit of 0 disables that key. State is per node and in
+ * memory only.
+ *
+ * Every endpoint and key kind has its own table with its own key budget
+ * (app.rate-limit.max-keys.*), so a spray of random emails fills only the
+ * email table of one endpoint. A full table stops limiting new keys of its
+ * kind only (see SlidingWindowRateLimiter); the IP check runs first and keeps
+ * limiting the sources of such a spray, and users already tracked stay limited.
+ */
+@Service
+public class AuthRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimiter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.window-ms:60000}")
+    private long windowMillis;
+
+    // Key budgets per endpoint and key kind
+    @Value("${app.rate-limit.max-keys.ip:100000}")
+    private int maxIpKeys;
+
+    @Value("${app.rate-limit.max-keys.email:200000}")
+    private int maxEmailKeys;
+
+    @Value("${app.rate-limit.max-keys.ip-email:200000}")
+    private int maxIpEmailKeys;
+
+    @Value("${app.rate-limit.login.ip:30}")
+    private int loginIpLimit;
+
+    @Value("${app.rate-limit.login.email:10}")
+    private int loginEmailLimit;
+
+    @Value("${app.rate-limit.login.ip-email:5}")
+    private int loginIpEmailLimit;
+
+    @Value("${app.rate-limit.forgot-password.ip:10}")
+    private int forgotPasswordIpLimit;
+
+    @Value("${app.rate-limit.forgot-password.email:3}")
+    private int forgotPasswordEmailLimit;
+
+    @Value("${app.rate-limit.signup.ip:10}")
+    private int signupIpLimit;
+
+    @Value("${app.rate-limit.signup.email:3}")
+    private int signupEmailLimit;
+
+    private final Map<String, SlidingWindowRateLimiter> limiters = new HashMap<>();
+
+    private Counter loginRejected;
+    private Counter forgotPasswordRejected;
+    private Counter signupRejected;
+
+    @PostConstruct
+    public void init() {
+        for (String scope : List.of("login", "forgot", "signup")) {
+            register(scope + ":ip", maxIpKeys);
+            register(scope + ":email", maxEmailKeys);
+        }
+        register("login:ip-email", maxIpEmailKeys);
+
+        loginRejected = rejectedCounter("login");
+        forgotPasswordRejected = rejectedCounter("forgot-password");
+        signupRejected = rejectedCounter("signup");
+    }
+
+    private void register(String name, int maxKeys) {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(windowMillis, maxKeys);
+        limiters.put(name, limiter);
+        Gauge.builder("auth.rate_limit.keys", limiter, SlidingWindowRateLimiter::size)
+                .tag("limiter", name)
+                .description("Keys currently tracked by the auth rate limiter")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.rate_limit.untracked_full", limiter, SlidingWindowRateLimiter::untrackedWhileFull)
+                .tag("limiter", name)
+                .description("Requests for new keys not limited because the limiter's key budget was used up")
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String ipAddress, String email) {
+        check("login", ipAddress, email, loginIpLimit, loginEmailLimit, loginIpEmailLimit, loginRejected);
+    }
+
+    public void checkForgotPassword(String ipAddress, String email) {
+        check("forgot", ipAddress, email, forgotPasswordIpLimit, forgotPasswordEmailLimit, 0, forgotPasswordRejected);
+    }
+
+    public void checkSignup(String ipAddress, String email) {
+        check("signup", ipAddress, email, signupIpLimit, signupEmailLimit, 0, signupRejected);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleKeys() {
+        long now = System.currentTimeMillis();
+        limiters.forEach((name, limiter) -> {
+            int removed = limiter.evictIdle(now);
+            if (removed > 0) {
+                logger.debug("Rate limiter {} evicted {} idle keys, {} remaining", name, removed, limiter.size());
+            }
+        });
+    }
+
+    private void check(String scope, String ipAddress, String email,
+                       int ipLimit, int emailLimit, int ipEmailLimit, Counter rejected) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        String normalizedEmail = email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+
+        long retryAfter = acquire(scope + ":ip", ipAddress, ipLimit, now);
+        if (retryAfter == 0) {
+            retryAfter = acquire(scope + ":email", normalizedEmail, emailLimit, now);
+        }
+        if (retryAfter == 0) {
+            retryAfter = acquire(scope + ":ip-email", ipAddress + "|" + normalizedEmail, ipEmailLimit, now);
+        }
+
+        if (retryAfter > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException((retryAfter + 999) / 1000);
+        }
+    }
+
+    private long acquire(String limiterName, String key, int limit, long now) {
+        return limit > 0 ? limiters.get(limiterName).tryAcquire(key, limit, now) : 0;
+    }
+
+    private Counter rejectedCounter(String endpoint) {
+        return Counter.builder("auth.rate_limit.rejected")
+                .tag("endpoint", endpoint)
+                .description("Requests rejected by the auth rate limiter")
+                .register(meterRegistry);
+    }
+}
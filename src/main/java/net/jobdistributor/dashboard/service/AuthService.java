@@ -5,19 +5,32 @@ import net.jobdistributor.dashboard.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
-
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Signup, login and password flows.
+ *
+ * Hashing runs on PasswordHashingService's pool, never inside a transaction:
+ * login, signup and resetPassword read what they need in one short
+ * transaction, hash or verify off the request thread, then write in a second
+ * short transaction. A JDBC connection is therefore never held while hashing.
+ */
 @Service
-@Transactional
 public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    private static final Duration VERIFICATION_TOKEN_VALIDITY = Duration.ofHours(24);
+    private static final Duration RESET_TOKEN_VALIDITY = Duration.ofHours(1);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -31,7 +44,10 @@ public class AuthService {
     private PasswordResetRepository passwordResetRepository;
 
     @Autowired
-    private LoginAttemptRepository loginAttemptRepository;
+    private OneTimeTokenService oneTimeTokenService;
+
+    @Autowired
+    private LoginAttemptRecorder loginAttemptRecorder;
 
     @Autowired
     private EmailService emailService;
@@ -39,19 +55,60 @@ public class AuthService {
     @Autowired
     private LogoutService logoutService;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    // Database work after hashing runs here, not on the BCrypt workers
+    @Autowired
+    private AuthCompletionExecutor authCompletionExecutor;
+
+    @Autowired
+    private EmailDirectory emailDirectory;
+
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.auth.lockout.max-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Value("${app.auth.lockout.duration-minutes:60}")
+    private long lockoutMinutes;
 
     // ========================================
     // SIGNUP
     // ========================================
 
-    public SignupResult signup(String email, String firstName, String lastName,
-                               String organization, String jobRole, String profileUrl,
-                               String password, String ipAddress) {
+    public CompletableFuture<SignupResult> signup(String email, String firstName, String lastName,
+                                                  String organization, String jobRole, String profileUrl,
+                                                  String password, String ipAddress) {
 
-        // Check if email already exists
+        // Check if email already exists (before spending a hash on it);
+        // addresses the directory has never seen need no query
+        if (!emailDirectory.isDefinitelyUnknown(email) && emailRepository.findByEmailAddress(email).isPresent()) {
+            return CompletableFuture.completedFuture(new SignupResult(false, "Email already exists", null));
+        }
+
+        return passwordHashingService.encode(password).thenApplyAsync(encodedPassword -> {
+            Email userEmail = transactionTemplate.execute(status ->
+                    createUser(email, firstName, lastName, organization, jobRole, profileUrl, encodedPassword, ipAddress));
+
+            if (userEmail == null) {
+                return new SignupResult(false, "Email already exists", null);
+            }
+
+            return new SignupResult(true, "User created successfully", userEmail.getUser().getId());
+        }, authCompletionExecutor);
+    }
+
+    private Email createUser(String email, String firstName, String lastName,
+                             String organization, String jobRole, String profileUrl,
+                             String encodedPassword, String ipAddress) {
+        // Re-check inside the write transaction - another signup may have won meanwhile
         if (emailRepository.findByEmailAddress(email).isPresent()) {
-            return new SignupResult(false, "Email already exists", null);
+            return null;
         }
 
         // Create user
@@ -72,38 +129,59 @@ public class AuthService {
         userEmail.setUser(savedUser);
         userEmail.setEmailAddress(email);
         userEmail.setIsPrimary(true);
-        userEmail.setVerificationToken(generateToken());
-        userEmail.setTokenExpiresAt(LocalDateTime.now().plusHours(24));
         userEmail.setCreatedAt(LocalDateTime.now());
         userEmail.setUpdatedAt(LocalDateTime.now());
 
         emailRepository.save(userEmail);
 
-        // Send verification email
-        try {
-            emailService.sendVerificationEmail(email, userEmail.getVerificationToken());
-        } catch (Exception e) {
-            // Log error but don't fail signup
-            logger.error("Failed to send verification email to: {}", email, e);
-        }
+        // Verification email is delivered by the outbox dispatcher once this commits
+        String verificationToken = oneTimeTokenService.issue(OneTimeTokenPurpose.EMAIL_VERIFICATION,
+                userEmail.getId(), savedUser.getId(), VERIFICATION_TOKEN_VALIDITY, ipAddress);
+        emailService.queueVerificationEmail(email, verificationToken);
 
         // Create password
         Password userPassword = new Password();
         userPassword.setUser(savedUser);
-        userPassword.setEncryptedPassword(passwordEncoder.encode(password));
+        userPassword.setEncryptedPassword(encodedPassword);
         userPassword.setCreatedAt(LocalDateTime.now());
         userPassword.setUpdatedAt(LocalDateTime.now());
 
         passwordRepository.save(userPassword);
 
-        return new SignupResult(true, "User created successfully", savedUser.getId());
+        // Visible here at once, on other nodes through the change log
+        emailDirectory.recordEmail(email, savedUser.getId(), true, false);
+        accountChangeLog.recordEmailsChanged(savedUser.getId());
+
+        return userEmail;
     }
 
     // ========================================
     // EMAIL VERIFICATION
     // ========================================
 
+    @Transactional
     public boolean verifyEmail(String token) {
+        if (OneTimeTokenService.parseSubjectId(token) == null) {
+            return verifyLegacyEmailToken(token);
+        }
+
+        // One indexed statement checks and uses up the token
+        Long emailId = oneTimeTokenService.consume(OneTimeTokenPurpose.EMAIL_VERIFICATION, token);
+        if (emailId == null) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        emailRepository.markVerified(emailId, now);
+        userRepository.markEmailVerified(emailId, UserStatus.ACTIVE, now);
+        return true;
+    }
+
+    /**
+     * Tokens issued before one_time_tokens, stored in emails.verification_token.
+     * Can be removed once the last of them has expired.
+     */
+    private boolean verifyLegacyEmailToken(String token) {
         Optional<Email> emailOpt = emailRepository.findByVerificationToken(token);
 
         if (emailOpt.isEmpty()) {
@@ -137,7 +215,7 @@ public class AuthService {
     // LOGIN
     // ========================================
 
-    public LoginResult login(String email, String password, String ipAddress, String userAgent) {
+    public CompletableFuture<LoginResult> login(String email, String password, String ipAddress, String userAgent) {
 
         // Record login attempt
         LoginAttempt attempt = new LoginAttempt();
@@ -146,21 +224,28 @@ public class AuthService {
         attempt.setUserAgent(userAgent);
         attempt.setCreatedAt(LocalDateTime.now());
 
+        // One statement: user, primary email and current password hash
+        // (none for addresses the directory has never seen)
+        Optional<LoginCredentials> credentialsOpt;
         try {
-            // Find user by email
-            Optional<User> userOpt = userRepository.findByPrimaryEmail(email);
-
-            if (userOpt.isEmpty()) {
-                attempt.setSuccess(false);
-                attempt.setFailureReason("User not found");
-                loginAttemptRepository.save(attempt);
-                return new LoginResult(false, "Invalid credentials", null);
-            }
+            credentialsOpt = emailDirectory.isDefinitelyUnknown(email)
+                    ? Optional.empty()
+                    : userRepository.findLoginCredentials(email);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(recordSystemError(attempt, e));
+        }
 
-            User user = userOpt.get();
-            attempt.setUserId(user.getId());
+        if (credentialsOpt.isEmpty()) {
+            attempt.setSuccess(false);
+            attempt.setFailureReason("User not found");
+            loginAttemptRecorder.record(attempt);
+            return CompletableFuture.completedFuture(new LoginResult(false, "Invalid credentials", null));
+        }
+
+        LoginCredentials credentials = credentialsOpt.get();
+        attempt.setUserId(credentials.userId());
 
-            // Check account status
+        // Check account status
 //            if (user.getStatus() != UserStatus.ACTIVE) {
 //                attempt.setSuccess(false);
 //                attempt.setFailureReason("Account not active");
@@ -168,61 +253,69 @@ public class AuthService {
 //                return new LoginResult(false, "Account not verified or suspended", null);
 //            }
 
-            // Check if account is locked
-            if (user.getLockedUntil() != null && user.getLockedUntil().isAfter(LocalDateTime.now())) {
-                attempt.setSuccess(false);
-                attempt.setFailureReason("Account locked");
-                loginAttemptRepository.save(attempt);
-                return new LoginResult(false, "Account is temporarily locked", null);
-            }
-
-            // Get latest password
-            Optional<Password> passwordOpt = passwordRepository.findLatestByUserId(user.getId());
+        // Check if account is locked
+        if (credentials.isLocked(LocalDateTime.now())) {
+            attempt.setSuccess(false);
+            attempt.setFailureReason("Account locked");
+            loginAttemptRecorder.record(attempt);
+            return CompletableFuture.completedFuture(new LoginResult(false, "Account is temporarily locked", null));
+        }
 
-            if (passwordOpt.isEmpty()) {
-                attempt.setSuccess(false);
-                attempt.setFailureReason("No password found");
-                loginAttemptRepository.save(attempt);
-                return new LoginResult(false, "Invalid credentials", null);
-            }
+        if (credentials.encryptedPassword() == null) {
+            attempt.setSuccess(false);
+            attempt.setFailureReason("No password found");
+            loginAttemptRecorder.record(attempt);
+            return CompletableFuture.completedFuture(new LoginResult(false, "Invalid credentials", null));
+        }
 
-            // Verify password
-            if (!passwordEncoder.matches(password, passwordOpt.get().getEncryptedPassword())) {
-                // Increment failed attempts
-                user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
+        // Verify password off the request thread, with no transaction open
+        return passwordHashingService.verify(password, credentials.encryptedPassword())
+                .thenApplyAsync(check -> {
+                    try {
+                        return transactionTemplate.execute(status ->
+                                completeLogin(credentials, check, ipAddress, attempt));
+                    } catch (Exception e) {
+                        return recordSystemError(attempt, e);
+                    }
+                }, authCompletionExecutor);
+    }
 
-                // Lock account after 5 failed attempts
-                if (user.getFailedLoginAttempts() >= 5) {
-                    user.setLockedUntil(LocalDateTime.now().plusHours(1));
-                }
+    private LoginResult completeLogin(LoginCredentials credentials, PasswordHashingService.PasswordCheck check,
+                                      String ipAddress, LoginAttempt attempt) {
+        if (!check.matches()) {
+            // Increment failed attempts and lock after maxFailedAttempts - one atomic UPDATE
+            LocalDateTime now = LocalDateTime.now();
+            userRepository.recordFailedLogin(credentials.userId(), maxFailedAttempts,
+                    now.plusMinutes(lockoutMinutes), now);
 
-                userRepository.save(user);
+            attempt.setSuccess(false);
+            attempt.setFailureReason("Invalid password");
+            loginAttemptRecorder.record(attempt);
+            return new LoginResult(false, "Invalid credentials", null);
+        }
 
-                attempt.setSuccess(false);
-                attempt.setFailureReason("Invalid password");
-                loginAttemptRepository.save(attempt);
-                return new LoginResult(false, "Invalid credentials", null);
-            }
+        // Successful login - a single UPDATE
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.recordSuccessfulLogin(credentials.userId(), ipAddress, now);
 
-            // Successful login
-            user.setLastLoginAt(LocalDateTime.now());
-            user.setLastLoginIp(ipAddress);
-            user.setFailedLoginAttempts(0);
-            user.setLockedUntil(null);
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+        attempt.setSuccess(true);
+        loginAttemptRecorder.record(attempt);
 
-            attempt.setSuccess(true);
-            loginAttemptRepository.save(attempt);
+        // Stored hash used an old algorithm or cost - replace it while we have the password
+        if (check.upgradedHash() != null) {
+            passwordRepository.replaceHash(credentials.passwordId(), credentials.encryptedPassword(),
+                    check.upgradedHash(), now);
+        }
 
-            return new LoginResult(true, "Login successful", user);
+        return new LoginResult(true, "Login successful", credentials.withSuccessfulLogin(now, ipAddress));
+    }
 
-        } catch (Exception e) {
-            attempt.setSuccess(false);
-            attempt.setFailureReason("System error");
-            loginAttemptRepository.save(attempt);
-            return new LoginResult(false, "Login failed", null);
-        }
+    private LoginResult recordSystemError(LoginAttempt attempt, Exception e) {
+        logger.error("Login failed for {}: {}", attempt.getEmail(), e.getMessage(), e);
+        attempt.setSuccess(false);
+        attempt.setFailureReason("System error");
+        loginAttemptRecorder.record(attempt);
+        return new LoginResult(false, "Login failed", null);
     }
 
     // ========================================
@@ -230,6 +323,15 @@ public class AuthService {
     // ========================================
 
     public boolean initiatePasswordReset(String email, String ipAddress) {
+        if (emailDirectory.isDefinitelyUnknown(email)) {
+            return false; // Don't reveal if email exists
+        }
+
+        // Reset row and outgoing email commit together
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> createPasswordReset(email, ipAddress)));
+    }
+
+    private boolean createPasswordReset(String email, String ipAddress) {
         Optional<User> userOpt = userRepository.findByPrimaryEmail(email);
 
         if (userOpt.isEmpty()) {
@@ -238,31 +340,11 @@ public class AuthService {
 
         User user = userOpt.get();
 
-        // Delete any existing reset tokens
-        passwordResetRepository.deleteByUserIdAndUsedAtIsNull(user.getId());
-
-        // Create new reset token
-        PasswordReset reset = new PasswordReset();
-        reset.setUserId(user.getId());
-        reset.setResetToken(generateToken());
-        reset.setTokenExpiresAt(LocalDateTime.now().plusHours(1));
-        reset.setResetIp(ipAddress);
-        reset.setCreatedAt(LocalDateTime.now());
-
-        passwordResetRepository.save(reset);
-
-//        Optional<Email> userEmailOpt = emailRepository.findByEmailAddress(email);
-//        if (userEmailOpt.isEmpty()) {
-//            logger.error("Email Address doesn't exist in systems: {}", email);
-//            return false;
-//        }
-        try {
-            emailService.sendPasswordResetEmail(email, reset.getResetToken());
-        } catch (Exception e) {
-            // Log error but don't fail signup
-            logger.error("Failed to send Password Reset email to: {}", email, e);
-        }
+        // Replaces any reset link sent earlier
+        String resetToken = oneTimeTokenService.issue(OneTimeTokenPurpose.PASSWORD_RESET,
+                user.getId(), user.getId(), RESET_TOKEN_VALIDITY, ipAddress);
 
+        emailService.queuePasswordResetEmail(email, resetToken);
         return true;
     }
 
@@ -270,39 +352,70 @@ public class AuthService {
     // RESET PASSWORD
     // ========================================
 
-    public boolean resetPassword(String token, String newPassword) {
+    public CompletableFuture<Boolean> resetPassword(String token, String newPassword) {
+        if (OneTimeTokenService.parseSubjectId(token) == null) {
+            return resetPasswordWithLegacyToken(token, newPassword);
+        }
+
+        // Indexed check first so a bad link never costs a password hash
+        if (!oneTimeTokenService.isRedeemable(OneTimeTokenPurpose.PASSWORD_RESET, token)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return passwordHashingService.encode(newPassword).thenApplyAsync(encodedPassword ->
+                transactionTemplate.execute(status -> {
+                    // Uses up the token - fails if a concurrent reset got there first
+                    Long userId = oneTimeTokenService.consume(OneTimeTokenPurpose.PASSWORD_RESET, token);
+                    if (userId == null) {
+                        return false;
+                    }
+                    replacePassword(userId, encodedPassword);
+                    return true;
+                }), authCompletionExecutor);
+    }
+
+    /**
+     * Tokens issued before one_time_tokens, stored in password_resets.
+     * Can be removed once the last of them has expired.
+     */
+    private CompletableFuture<Boolean> resetPasswordWithLegacyToken(String token, String newPassword) {
         Optional<PasswordReset> resetOpt = passwordResetRepository
                 .findByResetTokenAndTokenExpiresAtAfterAndUsedAtIsNull(token, LocalDateTime.now());
 
         if (resetOpt.isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         PasswordReset reset = resetOpt.get();
 
-        // Create new password
+        return passwordHashingService.encode(newPassword).thenApplyAsync(encodedPassword ->
+                transactionTemplate.execute(status -> {
+                    // Mark reset token as used - fails if a concurrent reset got there first
+                    if (passwordResetRepository.markUsed(reset.getId(), LocalDateTime.now()) == 0) {
+                        return false;
+                    }
+                    replacePassword(reset.getUserId(), encodedPassword);
+                    return true;
+                }), authCompletionExecutor);
+    }
+
+    private void replacePassword(Long userId, String encodedPassword) {
         Password newPasswordEntity = new Password();
-        newPasswordEntity.setUser(userRepository.findById(reset.getUserId()).orElse(null));
-        newPasswordEntity.setEncryptedPassword(passwordEncoder.encode(newPassword));
+        newPasswordEntity.setUser(userRepository.getReferenceById(userId));
+        newPasswordEntity.setEncryptedPassword(encodedPassword);
         newPasswordEntity.setCreatedAt(LocalDateTime.now());
         newPasswordEntity.setUpdatedAt(LocalDateTime.now());
 
         passwordRepository.save(newPasswordEntity);
 
-        // Mark reset token as used
-        reset.setUsedAt(LocalDateTime.now());
-        passwordResetRepository.save(reset);
-
-
-        logoutService.logoutAllDevices(reset.getUserId());
-
-        return true;
+        logoutService.logoutAllDevices(userId);
     }
 
     // ========================================
     // UPDATE PROFILE
     // ========================================
 
+    @Transactional
     public boolean updateProfile(Long userId, String firstName, String lastName,
                                  String organization, String jobRole, String profileUrl) {
         Optional<User> userOpt = userRepository.findById(userId);
@@ -323,14 +436,6 @@ public class AuthService {
         return true;
     }
 
-    // ========================================
-    // HELPER METHODS
-    // ========================================
-
-    private String generateToken() {
-        return UUID.randomUUID().toString().replace("-", "");
-    }
-
     // ========================================
     // RESULT CLASSES
     // ========================================
@@ -354,16 +459,16 @@ public class AuthService {
     public static class LoginResult {
         private final boolean success;
         private final String message;
-        private final User user;
+        private final LoginCredentials credentials;
 
-        public LoginResult(boolean success, String message, User user) {
+        public LoginResult(boolean success, String message, LoginCredentials credentials) {
             this.success = success;
             this.message = message;
-            this.user = user;
+            this.credentials = credentials;
         }
 
         public boolean isSuccess() { return success; }
         public String getMessage() { return message; }
-        public User getUser() { return user; }
+        public LoginCredentials getCredentials() { return credentials; }
     }
 }
\ No newline at end of file
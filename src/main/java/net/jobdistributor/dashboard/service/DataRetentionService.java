@@ -0,0 +1,291 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Removes rows older than each table's retention period.
+ *
+ * login_attempts is partitioned by day on created_at on MySQL (see
+ * db/retention/login_attempts_partitioning.sql). There, expiry drops whole
+ * partitions - a metadata change instead of deleting millions of rows - and
+ * each run makes sure partitions exist a few days ahead so inserts never land
+ * in the catch-all p_future partition. Daily partitions are named after their
+ * exclusive upper bound: p20261018 holds rows before 2026-10-18.
+ *
+ * Tables that are not partitioned (password_resets, or any table on H2 or an
+ * unconverted MySQL schema) fall back to chunked deletes in the style of
+ * TokenBlacklistCompactor: primary-key chunks, each its own short statement,
+ * within a time budget per run. Each chunk is picked from the timestamp index
+ * in timestamp order, so it reads only the rows it deletes; ordering by id
+ * would scan the whole table when little or nothing has expired (see
+ * db/retention/retention_indexes.sql). Only one node runs retention at a time, on
+ * MaintenanceExecutor rather than the scheduler thread.
+ */
+@Service
+public class DataRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataRetentionService.class);
+
+    private static final String JOB_NAME = "data-retention";
+
+    private static final String FUTURE_PARTITION = "p_future";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MaintenanceExecutor maintenanceExecutor;
+
+    @Value("${app.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.retention.login-attempts.days:90}")
+    private int loginAttemptsRetentionDays;
+
+    @Value("${app.retention.password-resets.days:30}")
+    private int passwordResetsRetentionDays;
+
+    // Daily partitions created ahead of today
+    @Value("${app.retention.partitions-ahead-days:7}")
+    private int partitionsAheadDays;
+
+    @Value("${app.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.retention.time-budget-ms:30000}")
+    private long timeBudgetMillis;
+
+    @Value("${app.retention.pause-between-chunks-ms:50}")
+    private long pauseBetweenChunksMillis;
+
+    private boolean mysql;
+
+    private List<RetentionPolicy> policies;
+
+    @PostConstruct
+    public void init() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        mysql = product != null && product.toLowerCase().contains("mysql");
+
+        policies = List.of(
+                new RetentionPolicy("login_attempts", "created_at",
+                        Duration.ofDays(loginAttemptsRetentionDays), true),
+                // Kept for a while after the link stopped working, for support questions
+                new RetentionPolicy("password_resets", "token_expires_at",
+                        Duration.ofDays(passwordResetsRetentionDays), false));
+    }
+
+    @Scheduled(fixedDelayString = "${app.retention.interval-ms:3600000}",
+            initialDelayString = "${app.retention.initial-delay-ms:60000}")
+    public void tick() {
+        if (enabled) {
+            maintenanceExecutor.submit(JOB_NAME, this::runLocked);
+        }
+    }
+
+    private void runLocked() {
+        if (!jobLockService.tryAcquire(JOB_NAME, Duration.ofMillis(timeBudgetMillis * 2))) {
+            return;
+        }
+        try {
+            runOnce();
+        } finally {
+            jobLockService.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Apply every policy once. A failure in one table does not stop the others.
+     */
+    public List<RetentionResult> runOnce() {
+        List<RetentionResult> results = new ArrayList<>();
+        for (RetentionPolicy policy : policies) {
+            try {
+                RetentionResult result = apply(policy, LocalDateTime.now().minus(policy.retention()));
+                results.add(result);
+                if (result.rowsDeleted() > 0 || result.partitionsDropped() > 0 || result.backlogRemaining()) {
+                    logger.info("Retention on {}: {} rows deleted, {} partitions dropped, {} created{}",
+                            policy.table(), result.rowsDeleted(), result.partitionsDropped(),
+                            result.partitionsCreated(), result.backlogRemaining() ? " - backlog remaining" : "");
+                }
+            } catch (Exception e) {
+                logger.error("Retention on {} failed: {}", policy.table(), e.getMessage(), e);
+            }
+        }
+        return results;
+    }
+
+    private RetentionResult apply(RetentionPolicy policy, LocalDateTime cutoff) {
+        if (policy.partitioned() && mysql) {
+            List<String> partitions = findPartitions(policy.table());
+            if (partitions.contains(FUTURE_PARTITION)) {
+                int created = createPartitionsAhead(policy.table(), partitions);
+                int dropped = dropExpiredPartitions(policy.table(), partitions, cutoff.toLocalDate());
+                return new RetentionResult(policy.table(), 0, dropped, created, false);
+            }
+            logger.warn("{} is not partitioned yet - falling back to chunked deletes. " +
+                    "Apply db/retention/login_attempts_partitioning.sql to switch to partition expiry.", policy.table());
+        }
+        return deleteInChunks(policy, cutoff);
+    }
+
+    // ========================================
+    // PARTITIONED TABLES (MySQL)
+    // ========================================
+
+    private List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table);
+    }
+
+    /**
+     * Split days up to today + partitionsAheadDays out of p_future. p_future is
+     * empty in normal operation, so the reorganize moves no rows.
+     */
+    private int createPartitionsAhead(String table, List<String> partitions) {
+        LocalDate lastBound = partitions.stream()
+                .map(DataRetentionService::partitionBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(LocalDate.now());
+        LocalDate target = LocalDate.now().plusDays(partitionsAheadDays + 1L);
+
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate bound = lastBound.plusDays(1); !bound.isAfter(target); bound = bound.plusDays(1)) {
+            definitions.add("PARTITION " + bound.format(PARTITION_NAME) + " VALUES LESS THAN ('" + bound + "')");
+        }
+        if (definitions.isEmpty()) {
+            return 0;
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION +
+                " INTO (" + String.join(", ", definitions) + ")");
+        return definitions.size() - 1;
+    }
+
+    /**
+     * Drop daily partitions whose rows are all older than the cutoff.
+     * The newest daily partition is always kept so p_future can still be split.
+     */
+    private int dropExpiredPartitions(String table, List<String> partitions, LocalDate cutoff) {
+        LocalDate newest = partitions.stream()
+                .map(DataRetentionService::partitionBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        List<String> expired = partitions.stream()
+                .filter(name -> {
+                    LocalDate bound = partitionBound(name);
+                    return bound != null && !bound.isAfter(cutoff) && !bound.equals(newest);
+                })
+                .collect(Collectors.toList());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+        Counter.builder("auth.retention.partitions_dropped")
+                .description("Expired partitions dropped by retention")
+                .tag("table", table)
+                .register(meterRegistry)
+                .increment(expired.size());
+        return expired.size();
+    }
+
+    // Upper bound of a daily partition, or null for p_future and foreign names
+    static LocalDate partitionBound(String partitionName) {
+        if (partitionName == null || !partitionName.matches("p\\d{8}")) {
+            return null;
+        }
+        return LocalDate.parse(partitionName, PARTITION_NAME);
+    }
+
+    // ========================================
+    // CHUNKED DELETE FALLBACK
+    // ========================================
+
+    private RetentionResult deleteInChunks(RetentionPolicy policy, LocalDateTime cutoff) {
+        String selectIds = "SELECT id FROM " + policy.table() + " WHERE " + policy.timestampColumn() +
+                " < ? ORDER BY " + policy.timestampColumn() + " LIMIT " + chunkSize;
+        Counter rowsDeleted = Counter.builder("auth.retention.rows_deleted")
+                .description("Expired rows deleted by retention")
+                .tag("table", policy.table())
+                .register(meterRegistry);
+
+        long start = System.currentTimeMillis();
+        long removed = 0;
+        boolean backlogRemaining = false;
+        try {
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(selectIds, Long.class, Timestamp.valueOf(cutoff));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+                int deleted = jdbcTemplate.update(
+                        "DELETE FROM " + policy.table() + " WHERE id IN (" + placeholders + ")", ids.toArray());
+                removed += deleted;
+                rowsDeleted.increment(deleted);
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                if (System.currentTimeMillis() - start >= timeBudgetMillis) {
+                    backlogRemaining = true;
+                    break;
+                }
+                Thread.sleep(pauseBetweenChunksMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            backlogRemaining = true;
+        }
+        return new RetentionResult(policy.table(), removed, 0, 0, backlogRemaining);
+    }
+
+    // ========================================
+    // RESULT CLASSES
+    // ========================================
+
+    /**
+     * Rows of table whose timestampColumn is older than retention are removed.
+     * partitioned: the table may be day-partitioned on timestampColumn (MySQL only)
+     */
+    public record RetentionPolicy(String table, String timestampColumn, Duration retention, boolean partitioned) {}
+
+    public record RetentionResult(String table, long rowsDeleted, int partitionsDropped, int partitionsCreated,
+                                  boolean backlogRemaining) {}
+}
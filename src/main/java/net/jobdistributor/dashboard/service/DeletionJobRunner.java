@@ -0,0 +1,255 @@
+package net.jobdistributor.dashboard.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.jobdistributor.dashboard.entity.DeletionJob;
+import net.jobdistributor.dashboard.entity.DeletionJobStatus;
+import net.jobdistributor.dashboard.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs permanent account deletions.
+ *
+ * Each table is cleared with one set-based DELETE and the job records the row
+ * count that statement returned. login_attempts is the exception: a long-lived
+ * account can have a very large history there, so it is removed in id chunks,
+ * each in its own short transaction together with the job's running count,
+ * with a pause between chunks so concurrent login writes are not held up.
+ * The remaining tables, the user row and the completion go in one transaction.
+ *
+ * Jobs are claimed with a lease like email outbox rows. A job whose runner died
+ * is picked up again by the periodic scan on any node; the deletes only match
+ * rows that still exist, so a resumed job keeps exact totals.
+ */
+@Service
+public class DeletionJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeletionJobRunner.class);
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    @Autowired
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordResetRepository passwordResetRepository;
+
+    @Autowired
+    private OneTimeTokenService oneTimeTokenService;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.deletion-jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.deletion-jobs.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.deletion-jobs.chunk-pause-ms:50}")
+    private long chunkPauseMillis;
+
+    @Value("${app.deletion-jobs.claim-timeout-ms:60000}")
+    private long claimTimeoutMillis;
+
+    // Delete throughput assumed by estimateDuration
+    @Value("${app.deletion-jobs.estimated-rows-per-second:20000}")
+    private long estimatedRowsPerSecond;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deletion-job-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        // An interrupted job stays claimed until its lease runs out, then resumes elsewhere
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Run the job in the background on this node
+     */
+    public void submit(Long jobId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            // Shutting down - the resume scan will find it
+            logger.warn("Deletion job {} not started: runner is shut down", jobId);
+        }
+    }
+
+    /**
+     * Claim and run a job on the calling thread.
+     * Returns the job as it ended up, or null if another runner holds it.
+     */
+    public DeletionJob run(Long jobId) {
+        String owner = jobLockService.getNodeId();
+        LocalDateTime now = LocalDateTime.now();
+        if (deletionJobRepository.claim(jobId, DeletionJobStatus.QUEUED, DeletionJobStatus.RUNNING,
+                owner, now, leaseFrom(now)) == 0) {
+            return null;
+        }
+
+        DeletionJob job = deletionJobRepository.findById(jobId).orElseThrow();
+        Long userId = job.getUserId();
+        long start = System.currentTimeMillis();
+        try {
+            if (!deleteLoginAttempts(jobId, userId, owner)) {
+                logger.info("Deletion job {} interrupted, will resume after its claim expires", jobId);
+                return deletionJobRepository.findById(jobId).orElse(null);
+            }
+            transactionTemplate.executeWithoutResult(status -> deleteAccountRows(jobId, userId, owner));
+
+            DeletionJob finished = deletionJobRepository.findById(jobId).orElseThrow();
+            logger.info("🔴 HARD DELETE COMPLETED: user {} permanently deleted in {} ms (job {}). " +
+                            "Removed: {} user, {} emails, {} passwords, {} login attempts, {} password resets, {} tokens",
+                    userId, System.currentTimeMillis() - start, jobId, finished.getUsersDeleted(),
+                    finished.getEmailsDeleted(), finished.getPasswordsDeleted(), finished.getLoginAttemptsDeleted(),
+                    finished.getPasswordResetsDeleted(), finished.getTokensDeleted());
+            return finished;
+        } catch (Exception e) {
+            logger.error("🔴 HARD DELETE FAILED for user {} (job {}): {}", userId, jobId, e.getMessage(), e);
+            deletionJobRepository.fail(jobId, owner, DeletionJobStatus.FAILED, describe(e), LocalDateTime.now());
+            return deletionJobRepository.findById(jobId).orElse(null);
+        }
+    }
+
+    /**
+     * Rough wall-clock time of a deletion: the rows at the assumed delete rate,
+     * plus the pauses between login history chunks.
+     */
+    public Duration estimateDuration(long loginAttempts, long otherRows) {
+        long pauses = Math.max(0, (loginAttempts + chunkSize - 1) / chunkSize - 1);
+        long deleteMillis = (loginAttempts + otherRows) * 1000 / Math.max(1, estimatedRowsPerSecond);
+        return Duration.ofMillis(deleteMillis + pauses * chunkPauseMillis);
+    }
+
+    /**
+     * Resume queued jobs and jobs whose runner stopped renewing its claim.
+     * Also runs at startup, which picks up jobs cut off by a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.deletion-jobs.resume-interval-ms:60000}")
+    public void resumeStalled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Long> ids = deletionJobRepository.findRunnableIds(DeletionJobStatus.QUEUED,
+                    DeletionJobStatus.RUNNING, LocalDateTime.now(), PageRequest.of(0, 20));
+            ids.forEach(this::submit);
+        } catch (Exception e) {
+            logger.error("Deletion job resume scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the user's login history one chunk per transaction.
+     * Returns false if the thread was interrupted before the history was gone.
+     */
+    private boolean deleteLoginAttempts(Long jobId, Long userId, String owner) {
+        while (true) {
+            Integer found = transactionTemplate.execute(status -> {
+                List<Long> ids = loginAttemptRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int deleted = loginAttemptRepository.deleteByIdIn(ids);
+                if (deletionJobRepository.addLoginAttemptsDeleted(jobId, owner, deleted,
+                        leaseFrom(LocalDateTime.now())) == 0) {
+                    throw new IllegalStateException("Lost claim on deletion job " + jobId);
+                }
+                return ids.size();
+            });
+            if (found == null || found < chunkSize) {
+                return true;
+            }
+            try {
+                Thread.sleep(chunkPauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private void deleteAccountRows(Long jobId, Long userId, String owner) {
+        int tokens = tokenBlacklistRepository.deleteByUserId(userId) + refreshTokenRepository.deleteByUserId(userId);
+        int passwordResets = passwordResetRepository.deleteByUserId(userId) + oneTimeTokenService.deleteForUser(userId);
+        int emails = emailRepository.deleteByUserId(userId);
+        int passwords = passwordRepository.deleteByUserId(userId);
+        int users = userRepository.deleteUserById(userId);
+
+        if (deletionJobRepository.complete(jobId, owner, DeletionJobStatus.COMPLETED, tokens, passwordResets,
+                emails, passwords, users, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Lost claim on deletion job " + jobId);
+        }
+
+        // Every node drops the user's addresses from its email directory
+        accountChangeLog.recordUserRemoved(userId);
+    }
+
+    private LocalDateTime leaseFrom(LocalDateTime now) {
+        return now.plus(Duration.ofMillis(claimTimeoutMillis));
+    }
+
+    private static String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,316 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.repository.EmailDirectoryRow;
+import net.jobdistributor.dashboard.repository.EmailRepository;
+import net.jobdistributor.dashboard.util.LongLongHashMap;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory directory of every email address we know, so signup, login and
+ * forgot-password can answer "definitely unknown" without a query.
+ *
+ * Entries are keyed by the first 64 bits of SHA-256 of the normalized
+ * (trimmed, lower-cased) address and hold userId plus primary and deleted
+ * flags, packed into a primitive open-addressing table: 16 bytes per slot at
+ * load factor <= 0.7, i.e. 128 MiB for 5M emails (twice that briefly during
+ * a reload). Only the "unknown" answer skips the database; a known address is
+ * always confirmed by the usual query, so a stale or colliding entry can
+ * cost a query but never a wrong answer.
+ *
+ * The table is loaded on startup in keyset batches and reloaded on a
+ * schedule. This node's signups add entries directly; changes from other
+ * nodes arrive through AccountChangeLog. As with the token caches, the
+ * directory is only trusted while the change log is current.
+ */
+@Service
+public class EmailDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDirectory.class);
+
+    private static final long PRIMARY_FLAG = 0b10;
+    private static final long DELETED_FLAG = 0b01;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MaintenanceExecutor maintenanceExecutor;
+
+    @Value("${app.email-directory.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.email-directory.batch-size:10000}")
+    private int batchSize;
+
+    // Above this the directory stays off rather than exceed its memory budget
+    @Value("${app.email-directory.max-entries:6000000}")
+    private long maxEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LongLongHashMap current;
+
+    // Non-null only while a reload is in progress
+    private LongLongHashMap loading;
+
+    private volatile boolean ready = false;
+
+    // Set by AccountChangeLog - past this time emails added on other nodes may be missing
+    private volatile long trustedUntil = Long.MAX_VALUE;
+
+    private Counter unknownHits;
+    private Counter knownHits;
+    private Counter bypassed;
+
+    public record Entry(Long userId, boolean primary, boolean deleted) {}
+
+    @PostConstruct
+    public void registerMetrics() {
+        unknownHits = lookupCounter("unknown");
+        knownHits = lookupCounter("known");
+        bypassed = lookupCounter("bypassed");
+
+        Gauge.builder("auth.email_directory.entries", this, EmailDirectory::size)
+                .register(meterRegistry);
+        Gauge.builder("auth.email_directory.memory", this, EmailDirectory::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True only if the address is certainly not in the emails table.
+     * False means "ask the database".
+     */
+    public boolean isDefinitelyUnknown(String emailAddress) {
+        if (!ready || System.currentTimeMillis() > trustedUntil) {
+            bypassed.increment();
+            return false;
+        }
+
+        long key = key(emailAddress);
+        long value;
+        lock.readLock().lock();
+        try {
+            value = current.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (value == LongLongHashMap.ABSENT) {
+            unknownHits.increment();
+            return true;
+        }
+        knownHits.increment();
+        return false;
+    }
+
+    /**
+     * Directory entry for an address, or null if unknown or the directory is not loaded
+     */
+    public Entry lookup(String emailAddress) {
+        if (!ready) {
+            return null;
+        }
+        long value;
+        lock.readLock().lock();
+        try {
+            value = current.get(key(emailAddress));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return value == LongLongHashMap.ABSENT ? null : decode(value);
+    }
+
+    /**
+     * Add or update one address (signup on this node)
+     */
+    public void recordEmail(String emailAddress, Long userId, boolean primary, boolean deleted) {
+        long key = key(emailAddress);
+        long value = encode(userId, primary, deleted);
+
+        lock.writeLock().lock();
+        try {
+            if (current != null) {
+                current.put(key, value);
+            }
+            if (loading != null) {
+                loading.put(key, value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read one user's addresses from the database (change-log EMAILS_CHANGED)
+     */
+    public void reloadUser(Long userId) {
+        for (EmailDirectoryRow row : emailRepository.findDirectoryRowsByUserId(userId)) {
+            recordEmail(row.emailAddress(), row.userId(),
+                    Boolean.TRUE.equals(row.isPrimary()), Boolean.TRUE.equals(row.isDeleted()));
+        }
+    }
+
+    /**
+     * Drop every address of a user (change-log USER_REMOVED). Scans the table - hard deletes are rare.
+     */
+    public void removeUser(Long userId) {
+        lock.writeLock().lock();
+        try {
+            if (current != null) {
+                current.removeIfValue(value -> (value >>> 2) == userId);
+            }
+            if (loading != null) {
+                loading.removeIfValue(value -> (value >>> 2) == userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void trustUntil(long epochMillis) {
+        this.trustedUntil = epochMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-directory.reload-interval-ms:21600000}",
+            initialDelayString = "${app.email-directory.reload-interval-ms:21600000}")
+    public void scheduleReload() {
+        // A reload reads every email row; keep it off the scheduler thread
+        maintenanceExecutor.submit("email-directory-reload", this::reload);
+    }
+
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            long total = emailRepository.count();
+            if (total > maxEntries) {
+                ready = false;
+                logger.warn("Email directory disabled: {} emails exceed app.email-directory.max-entries={} ({} MB)",
+                        total, maxEntries, LongLongHashMap.estimateMemoryBytes(total) / (1024 * 1024));
+                return;
+            }
+
+            LongLongHashMap fresh = new LongLongHashMap((int) (total + total / 10));
+            lock.writeLock().lock();
+            try {
+                // Publish before reading the table so concurrent signups land in both
+                loading = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long afterId = 0;
+            long rows = 0;
+            while (true) {
+                List<EmailDirectoryRow> batch = emailRepository.findDirectoryRows(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                lock.writeLock().lock();
+                try {
+                    for (EmailDirectoryRow row : batch) {
+                        fresh.put(key(row.emailAddress()), encode(row.userId(),
+                                Boolean.TRUE.equals(row.isPrimary()), Boolean.TRUE.equals(row.isDeleted())));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                rows += batch.size();
+                afterId = batch.get(batch.size() - 1).id();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                current = fresh;
+                loading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+
+            logger.info("Email directory loaded: {} emails, {} KB, {} ms",
+                    rows, fresh.memoryBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                loading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Email directory load failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current != null ? current.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return current != null ? current.memoryBytes() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static long key(String emailAddress) {
+        String normalized = emailAddress.trim().toLowerCase(Locale.ROOT);
+        long key = TokenHashing.readLong(TokenHashing.sha256(normalized), 0);
+        // 0 marks an empty slot
+        return key != 0 ? key : 1;
+    }
+
+    private static long encode(Long userId, boolean primary, boolean deleted) {
+        return (userId << 2) | (primary ? PRIMARY_FLAG : 0) | (deleted ? DELETED_FLAG : 0);
+    }
+
+    private static Entry decode(long value) {
+        return new Entry(value >>> 2, (value & PRIMARY_FLAG) != 0, (value & DELETED_FLAG) != 0);
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("auth.email_directory.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,517 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import net.jobdistributor.dashboard.entity.EmailOutbox;
+import net.jobdistributor.dashboard.entity.EmailOutboxStatus;
+import net.jobdistributor.dashboard.repository.EmailOutboxRepository;
+import net.jobdistributor.dashboard.util.SlidingWindowRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers queued email_outbox rows over SMTP.
+ *
+ * A dedicated thread claims up to app.email-outbox.batch-size due rows with a
+ * conditional update (so several nodes can dispatch without sending twice),
+ * password resets first. The batch is split by recipient domain across up to
+ * pool-size connections from SmtpTransportPool and sent in parallel, each
+ * connection carrying many messages; connections stay open between batches.
+ * Each domain is limited to app.email-outbox.domain-limit-per-minute - emails
+ * over the limit are deferred to the next window without using up an attempt.
+ * The thread wakes as soon as a queued email commits and otherwise polls every
+ * app.email-outbox.poll-interval-ms.
+ *
+ * Failed messages are retried with exponential backoff and marked FAILED after
+ * app.email-outbox.max-attempts. Bodies can carry live verification and reset
+ * links, so they are blanked as soon as a row is SENT or FAILED; the rows
+ * themselves are purged after app.email-outbox.sent-retention-hours and
+ * app.email-outbox.failed-retention-hours. Rows claimed by a node that died are returned
+ * to the queue once their claim expires. Delivery lag (queued to sent) is
+ * recorded per email type in auth.email_outbox.delivery_lag.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private SmtpTransportPool smtpTransportPool;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.email-outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.mail.username:rouf@jobdistributor.net}")
+    private String fromEmail;
+
+    @Value("${app.email-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email-outbox.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${app.email-outbox.claim-timeout-ms:120000}")
+    private long claimTimeoutMillis;
+
+    @Value("${app.email-outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email-outbox.retry-base-ms:30000}")
+    private long retryBaseMillis;
+
+    @Value("${app.email-outbox.retry-max-ms:3600000}")
+    private long retryMaxMillis;
+
+    @Value("${app.email-outbox.sent-retention-hours:72}")
+    private long sentRetentionHours;
+
+    @Value("${app.email-outbox.failed-retention-hours:72}")
+    private long failedRetentionHours;
+
+    // Per recipient domain; 0 disables throttling
+    @Value("${app.email-outbox.domain-limit-per-minute:600}")
+    private int domainLimitPerMinute;
+
+    private final SlidingWindowRateLimiter domainThrottle = new SlidingWindowRateLimiter(60_000, 100_000);
+
+    private ExecutorService senders;
+
+    private final Object signal = new Object();
+
+    private Thread dispatcher;
+
+    private volatile boolean running;
+
+    private volatile boolean wakeRequested;
+
+    private volatile long pending;
+
+    private volatile long oldestPendingAgeMillis;
+
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void start() {
+        sent = Counter.builder("auth.email_outbox.sent")
+                .description("Emails delivered to the SMTP server")
+                .register(meterRegistry);
+        retried = Counter.builder("auth.email_outbox.retried")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        failed = Counter.builder("auth.email_outbox.failed")
+                .description("Emails given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("auth.email_outbox.batch")
+                .description("Time to send one batch over SMTP")
+                .register(meterRegistry);
+        Gauge.builder("auth.email_outbox.pending", this, d -> d.pending)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("auth.email_outbox.oldest_pending_age", this, d -> d.oldestPendingAgeMillis)
+                .baseUnit("milliseconds")
+                .description("Age of the oldest email waiting to be sent")
+                .register(meterRegistry);
+
+        senders = Executors.newFixedThreadPool(Math.max(1, smtpTransportPool.getPoolSize()), runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::run, "email-outbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            wakeUp();
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        senders.shutdown();
+    }
+
+    /**
+     * Ask the dispatcher thread to look for work now instead of at the next poll
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Claim and send one batch of due emails
+     */
+    public DispatchResult dispatchOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = jobLockService.getNodeId();
+
+        emailOutboxRepository.releaseExpiredClaims(EmailOutboxStatus.SENDING, EmailOutboxStatus.PENDING, now);
+
+        List<Long> dueIds = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return new DispatchResult(0, 0, 0, 0, false);
+        }
+
+        emailOutboxRepository.claim(dueIds, EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING,
+                owner, now, now.plus(Duration.ofMillis(claimTimeoutMillis)));
+        List<EmailOutbox> claimed = emailOutboxRepository.findClaimed(owner, EmailOutboxStatus.SENDING);
+        if (claimed.isEmpty()) {
+            // Another node took them - there may be more behind
+            return new DispatchResult(0, 0, 0, 0, true);
+        }
+
+        // Over-limit domains wait for their window; that is not a failed attempt
+        long nowMillis = System.currentTimeMillis();
+        List<EmailOutbox> sendable = new ArrayList<>(claimed.size());
+        int deferred = 0;
+        for (EmailOutbox email : claimed) {
+            long retryAfter = domainLimitPerMinute > 0
+                    ? domainThrottle.tryAcquire(domainOf(email.getRecipient()), domainLimitPerMinute, nowMillis)
+                    : 0;
+            if (retryAfter > 0) {
+                emailOutboxRepository.defer(email.getId(), owner, EmailOutboxStatus.PENDING,
+                        now.plus(Duration.ofMillis(retryAfter)));
+                deferred++;
+            } else {
+                sendable.add(email);
+            }
+        }
+
+        Map<EmailOutbox, Exception> failures = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        try {
+            if (smtpTransportPool.isSupported()) {
+                sendPooled(sendable, failures);
+            } else {
+                sendDirect(sendable, failures);
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(sendable.size());
+        for (EmailOutbox email : sendable) {
+            if (!failures.containsKey(email)) {
+                sentIds.add(email.getId());
+                Timer.builder("auth.email_outbox.delivery_lag")
+                        .description("Time from queueing an email to handing it to the SMTP server")
+                        .tag("type", email.getEmailType().name())
+                        .register(meterRegistry)
+                        .record(Duration.between(email.getCreatedAt(), sentAt));
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            emailOutboxRepository.markSent(sentIds, EmailOutboxStatus.SENT, owner, sentAt);
+            sent.increment(sentIds.size());
+        }
+
+        int gaveUp = 0;
+        for (Map.Entry<EmailOutbox, Exception> failure : failures.entrySet()) {
+            if (recordFailure(failure.getKey(), failure.getValue(), owner, sentAt)) {
+                gaveUp++;
+            }
+        }
+
+        return new DispatchResult(sentIds.size(), failures.size() - gaveUp, gaveUp, deferred,
+                claimed.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.domain-throttle-evict-interval-ms:300000}")
+    public void evictIdleDomains() {
+        domainThrottle.evictIdle(System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int removed = emailOutboxRepository.deleteSentBefore(EmailOutboxStatus.SENT,
+                    now.minusHours(sentRetentionHours));
+            if (removed > 0) {
+                logger.info("Purged {} sent outbox emails older than {}h", removed, sentRetentionHours);
+            }
+            removed = emailOutboxRepository.deleteFailedBefore(EmailOutboxStatus.FAILED,
+                    now.minusHours(failedRetentionHours));
+            if (removed > 0) {
+                logger.info("Purged {} failed outbox emails older than {}h", removed, failedRetentionHours);
+            }
+        } catch (Exception e) {
+            logger.error("Email outbox purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Split the batch across up to pool-size pooled connections, keeping each
+     * recipient domain on one connection, and send the parts in parallel
+     */
+    private void sendPooled(List<EmailOutbox> emails, Map<EmailOutbox, Exception> failures) {
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<EmailOutbox>> byDomain = new LinkedHashMap<>();
+        for (EmailOutbox email : emails) {
+            byDomain.computeIfAbsent(domainOf(email.getRecipient()), domain -> new ArrayList<>()).add(email);
+        }
+
+        int connections = Math.min(smtpTransportPool.getPoolSize(), byDomain.size());
+        List<List<EmailOutbox>> parts = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            parts.add(new ArrayList<>());
+        }
+        // Largest domains first onto the least loaded connection
+        byDomain.values().stream()
+                .sorted(Comparator.comparingInt(List<EmailOutbox>::size).reversed())
+                .forEach(group -> parts.stream().min(Comparator.comparingInt(List::size)).orElseThrow().addAll(group));
+
+        // Within a connection, keep the batch's priority order
+        Map<EmailOutbox, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < emails.size(); i++) {
+            position.put(emails.get(i), i);
+        }
+        parts.forEach(part -> part.sort(Comparator.comparingInt(position::get)));
+
+        if (parts.size() == 1) {
+            sendOverOneConnection(parts.get(0), failures);
+            return;
+        }
+        CompletableFuture.allOf(parts.stream()
+                        .map(part -> CompletableFuture.runAsync(() -> sendOverOneConnection(part, failures), senders))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    private void sendOverOneConnection(List<EmailOutbox> emails, Map<EmailOutbox, Exception> failures) {
+        SmtpTransportPool.PooledTransport pooled = null;
+        try {
+            for (int i = 0; i < emails.size(); i++) {
+                EmailOutbox email = emails.get(i);
+                MimeMessage message;
+                try {
+                    message = toMimeMessage(email);
+                    message.saveChanges();
+                } catch (MessagingException e) {
+                    failures.put(email, e);
+                    continue;
+                }
+
+                if (pooled == null) {
+                    try {
+                        pooled = smtpTransportPool.borrow();
+                    } catch (MessagingException e) {
+                        // No connection - the rest of this part waits for a retry
+                        for (EmailOutbox remaining : emails.subList(i, emails.size())) {
+                            failures.put(remaining, e);
+                        }
+                        return;
+                    }
+                }
+
+                try {
+                    pooled.getTransport().sendMessage(message, message.getAllRecipients());
+                    pooled.messageSent();
+                } catch (SendFailedException e) {
+                    // Rejected recipients; the session itself is still usable
+                    failures.put(email, e);
+                } catch (MessagingException e) {
+                    failures.put(email, e);
+                    smtpTransportPool.release(pooled, false);
+                    pooled = null;
+                }
+            }
+        } finally {
+            if (pooled != null) {
+                smtpTransportPool.release(pooled, true);
+            }
+        }
+    }
+
+    /**
+     * Fallback when the mail sender exposes no session to pool: one send call per batch
+     */
+    private void sendDirect(List<EmailOutbox> emails, Map<EmailOutbox, Exception> failures) {
+        Map<MimeMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (EmailOutbox email : emails) {
+            try {
+                MimeMessage message = toMimeMessage(email);
+                byMessage.put(message, email);
+                messages.add(message);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures; everything not listed was accepted
+            e.getFailedMessages().forEach((message, cause) -> {
+                EmailOutbox email = byMessage.get(message);
+                if (email != null) {
+                    failures.put(email, cause);
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                byMessage.values().forEach(email -> failures.put(email, e));
+            }
+        } catch (MailException e) {
+            // Connection or authentication failure - nothing in the batch was sent
+            byMessage.values().forEach(email -> failures.put(email, e));
+        }
+    }
+
+    private static String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return (at < 0 ? recipient : recipient.substring(at + 1)).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Delay before the given attempt (1-based): base * 2^(attempt-1), capped
+     */
+    long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        return Math.min(retryMaxMillis, retryBaseMillis << shift);
+    }
+
+    private boolean recordFailure(EmailOutbox email, Exception cause, String owner, LocalDateTime now) {
+        int attempt = email.getAttempts() + 1;
+        String error = describe(cause);
+
+        if (attempt >= maxAttempts) {
+            emailOutboxRepository.markGaveUp(email.getId(), owner, EmailOutboxStatus.FAILED, now, error);
+            failed.increment();
+            logger.error("Giving up on {} email {} to {} after {} attempts: {}",
+                    email.getEmailType(), email.getId(), email.getRecipient(), attempt, error);
+            return true;
+        }
+
+        LocalDateTime nextAttemptAt = now.plus(Duration.ofMillis(backoffMillis(attempt)));
+        emailOutboxRepository.markAttemptFailed(email.getId(), owner, EmailOutboxStatus.PENDING, nextAttemptAt, error);
+        retried.increment();
+        logger.warn("Failed to send {} email {} to {} (attempt {}), retrying at {}: {}",
+                email.getEmailType(), email.getId(), email.getRecipient(), attempt, nextAttemptAt, error);
+        return false;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        return message;
+    }
+
+    private void run() {
+        while (running) {
+            boolean moreWaiting = false;
+            try {
+                moreWaiting = dispatchOnce().moreWaiting();
+                refreshBacklogGauges();
+            } catch (Exception e) {
+                logger.error("Email outbox dispatch failed: {}", e.getMessage());
+            }
+
+            if (!moreWaiting) {
+                awaitWork();
+            }
+        }
+    }
+
+    private void awaitWork() {
+        synchronized (signal) {
+            if (!wakeRequested && running) {
+                try {
+                    signal.wait(pollIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+            wakeRequested = false;
+        }
+    }
+
+    private void refreshBacklogGauges() {
+        pending = emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING);
+        LocalDateTime oldest = emailOutboxRepository.findOldestCreatedAt(EmailOutboxStatus.PENDING);
+        oldestPendingAgeMillis = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+    }
+
+    private static String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    public record DispatchResult(int sent, int retrying, int failed, int deferred, boolean moreWaiting) {}
+}
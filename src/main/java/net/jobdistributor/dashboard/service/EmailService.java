@@ -1,84 +1,26 @@
 package net.jobdistributor.dashboard.service;
 
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.entity.EmailOutbox;
+import net.jobdistributor.dashboard.entity.EmailType;
+import net.jobdistributor.dashboard.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Builds transactional emails and queues them in email_outbox.
+ *
+ * Nothing here talks to SMTP: callers queue inside their own transaction, so
+ * the email exists exactly when the change that triggered it commits, and
+ * EmailOutboxDispatcher delivers it in the background.
+ */
 @Service
 public class EmailService {
 
-    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-
-    @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${app.frontend.url:http://localhost:3000}")
-    private String frontendUrl;
-
-    @Value("${spring.mail.username:rouf@jobdistributor.net}")
-    private String fromEmail;
-
-    public void sendVerificationEmail(String toEmail, String token) {
-        try {
-            String verificationUrl = frontendUrl + "/verify-email?token=" + token;
-
-            String subject = "Verify Your Email Address - JobDistributor";
-            String content = buildVerificationEmailContent(verificationUrl);
-
-            sendEmail(toEmail, subject, content);
-            logger.info("Verification email sent to: {}", toEmail);
-
-        } catch (Exception e) {
-            logger.error("Failed to send verification email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send verification email", e);
-        }
-    }
-
-    public void sendPasswordResetEmail(String toEmail, String token) {
-        try {
-            String resetUrl = frontendUrl + "/reset-password?token=" + token;
-
-            String subject = "Password Reset Request - JobDistributor";
-            String content = buildPasswordResetEmailContent(resetUrl);
-
-            sendEmail(toEmail, subject, content);
-            logger.info("Password reset email sent to: {}", toEmail);
-
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to: {}", toEmail, e);
-            // Don't throw exception here - we don't want to reveal if email exists
-        }
-    }
-
-    public void sendWelcomeEmail(String toEmail, String firstName) {
-        try {
-            String subject = "Welcome to JobDistributor!";
-            String content = buildWelcomeEmailContent(firstName);
-
-            sendEmail(toEmail, subject, content);
-            logger.info("Welcome email sent to: {}", toEmail);
-
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to: {}", toEmail, e);
-        }
-    }
-
-    private void sendEmail(String to, String subject, String content) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(content);
-
-        mailSender.send(message);
-    }
-
-    private String buildVerificationEmailContent(String verificationUrl) {
-        return """
+    private static final Template VERIFICATION_TEMPLATE = Template.of("""
             Hi there!
             
             Thank you for signing up for JobDistributor. To complete your registration, 
@@ -92,11 +34,9 @@ public class EmailService {
             
             Best regards,
             The JobDistributor Team
-            """.formatted(verificationUrl);
-    }
+            """);
 
-    private String buildPasswordResetEmailContent(String resetUrl) {
-        return """
+    private static final Template PASSWORD_RESET_TEMPLATE = Template.of("""
             Hi there!
             
             We received a request to reset your password for your JobDistributor account.
@@ -110,11 +50,9 @@ public class EmailService {
             
             Best regards,
             The JobDistributor Team
-            """.formatted(resetUrl);
-    }
+            """);
 
-    private String buildWelcomeEmailContent(String firstName) {
-        return """
+    private static final Template WELCOME_TEMPLATE = Template.of("""
             Hi %s!
             
             Welcome to JobDistributor! Your email has been verified successfully.
@@ -125,6 +63,85 @@ public class EmailService {
             
             Best regards,
             The JobDistributor Team
-            """.formatted(firstName);
+            """);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Value("${app.frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    private String verificationUrlPrefix;
+    private String resetUrlPrefix;
+
+    @PostConstruct
+    public void init() {
+        verificationUrlPrefix = frontendUrl + "/verify-email?token=";
+        resetUrlPrefix = frontendUrl + "/reset-password?token=";
+    }
+
+    public void queueVerificationEmail(String toEmail, String token) {
+        String verificationUrl = verificationUrlPrefix + token;
+
+        String subject = "Verify Your Email Address - JobDistributor";
+        String content = VERIFICATION_TEMPLATE.render(verificationUrl);
+
+        queue(EmailType.VERIFICATION, toEmail, subject, content);
+    }
+
+    public void queuePasswordResetEmail(String toEmail, String token) {
+        String resetUrl = resetUrlPrefix + token;
+
+        String subject = "Password Reset Request - JobDistributor";
+        String content = PASSWORD_RESET_TEMPLATE.render(resetUrl);
+
+        queue(EmailType.PASSWORD_RESET, toEmail, subject, content);
+    }
+
+    public void queueWelcomeEmail(String toEmail, String firstName) {
+        String subject = "Welcome to JobDistributor!";
+        String content = WELCOME_TEMPLATE.render(firstName);
+
+        queue(EmailType.WELCOME, toEmail, subject, content);
+    }
+
+    private void queue(EmailType type, String to, String subject, String content) {
+        emailOutboxRepository.save(new EmailOutbox(type, to, subject, content));
+
+        // Deliver right after the caller commits rather than at the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailOutboxDispatcher.wakeUp();
+                }
+            });
+        } else {
+            emailOutboxDispatcher.wakeUp();
+        }
+    }
+
+    /**
+     * Email body split once around its single placeholder, so rendering is one
+     * pre-sized concatenation instead of a format-string parse per email
+     */
+    private record Template(String prefix, String suffix) {
+
+        static Template of(String text) {
+            int placeholder = text.indexOf("%s");
+            if (placeholder < 0 || text.indexOf("%s", placeholder + 2) >= 0) {
+                throw new IllegalArgumentException("Template must contain exactly one %s");
+            }
+            return new Template(text.substring(0, placeholder), text.substring(placeholder + 2));
+        }
+
+        String render(String value) {
+            return new StringBuilder(prefix.length() + value.length() + suffix.length())
+                    .append(prefix).append(value).append(suffix)
+                    .toString();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.entity.JobLock;
+import net.jobdistributor.dashboard.repository.JobLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cluster-wide leases for scheduled jobs, backed by the job_locks table.
+ * A lease expires on its own, so a node that dies mid-run never blocks the job for good.
+ */
+@Service
+public class JobLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLockService.class);
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    private final String nodeId = resolveNodeId();
+
+    /**
+     * Try to take (or extend) the lease on a job. Returns false if another node holds it.
+     */
+    public boolean tryAcquire(String jobName, Duration leaseFor) {
+        try {
+            if (!jobLockRepository.existsById(jobName)) {
+                jobLockRepository.save(new JobLock(jobName));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return jobLockRepository.tryAcquire(jobName, nodeId, now, now.plus(leaseFor)) == 1;
+    }
+
+    public void release(String jobName) {
+        try {
+            jobLockRepository.release(jobName, nodeId, LocalDateTime.now());
+        } catch (Exception e) {
+            // The lease expires on its own
+            logger.warn("Failed to release job lock {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,58 +1,79 @@
 package net.jobdistributor.dashboard.service;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import net.jobdistributor.dashboard.entity.User;
-import net.jobdistributor.dashboard.repository.TokenBlacklistRepository;
-import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.repository.LoginCredentials;
+import net.jobdistributor.dashboard.security.JwtKeyRing;
+import net.jobdistributor.dashboard.security.VerifiedToken;
+import net.jobdistributor.dashboard.util.TokenHashing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.Date;
 
 @Service
 public class JwtService {
 
+    public static final String TOKEN_TYPE_CLAIM = "type";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    // Access tokens are not checked against the token generation, so this bounds
+    // how long a token survives a logout-all
+    @Value("${app.jwt.access-expiration:900000}")
+    private long accessExpiration;
 
-    @Value("${app.jwt.expiration}")
-    private long jwtExpiration;
+    @Autowired
+    private TokenBlacklistIndex tokenBlacklistIndex;
 
     @Autowired
-    private TokenBlacklistRepository tokenBlacklistRepository;
+    private TokenGenerationCache tokenGenerationCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private JwtKeyRing keyRing;
 
     /**
-     * Generate JWT token for authenticated user
+     * Generate a short-lived access token for an authenticated user
      */
     public String generateToken(User user) {
         String primaryEmail = user.getEmails().stream()
-                .filter(email -> email.getIsPrimary() && !email.getIsDeleted())
+                .filter(email -> email.getIsPrimary())
                 .map(email -> email.getEmailAddress())
                 .findFirst()
                 .orElse("unknown@domain.com");
 
+        return buildAccessToken(user.getId(), primaryEmail, user.getFirstName(), user.getLastName(),
+                user.getStatus().toString(), user.getTokenGeneration());
+    }
+
+    /**
+     * Generate a short-lived access token from the login projection (no entity loading)
+     */
+    public String generateToken(LoginCredentials credentials) {
+        return buildAccessToken(credentials.userId(), credentials.email(), credentials.firstName(),
+                credentials.lastName(), credentials.status().toString(), credentials.tokenGeneration());
+    }
+
+    private String buildAccessToken(Long userId, String email, String firstName, String lastName,
+                                    String status, Long tokenGeneration) {
+        JwtKeyRing.SigningKey signingKey = keyRing.activeSigningKey();
+
         return Jwts.builder()
-                .subject(user.getId().toString())
-                .claim("email", primaryEmail)
-                .claim("firstName", user.getFirstName())
-                .claim("lastName", user.getLastName())
-                .claim("status", user.getStatus().toString())
-                .claim("tokenGeneration", user.getTokenGeneration()) // ADD TOKEN GENERATION
+                .subject(userId.toString())
+                .claim("email", email)
+                .claim("firstName", firstName)
+                .claim("lastName", lastName)
+                .claim("status", status)
+                .claim("tokenGeneration", tokenGeneration) // ADD TOKEN GENERATION
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .expiration(new Date(System.currentTimeMillis() + accessExpiration))
+                .header().keyId(signingKey.keyId()).and()
+                .signWith(signingKey.key())
                 .compact();
     }
 
@@ -61,9 +82,7 @@ public class JwtService {
      */
     public Long getUserIdFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -79,9 +98,7 @@ public class JwtService {
      */
     public String getEmailFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -96,31 +113,50 @@ public class JwtService {
      * Validate JWT token - ENHANCED WITH GENERATION CHECK AND BLACKLIST
      */
     public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    /**
+     * Parse and validate JWT token once, returning everything callers need from it.
+     * Checks signature, expiration and the in-memory blacklist filter. Long-lived
+     * tokens issued before access tokens existed are also checked against the
+     * token generation; access tokens rely on their short TTL for logout-all,
+     * which is enforced when the refresh token is used.
+     * Returns null if the token is not valid.
+     */
+    public VerifiedToken verify(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
 
             // 1. Check if token is blacklisted
-            String tokenHash = hashToken(token);
-            if (tokenBlacklistRepository.existsByTokenHash(tokenHash)) {
+            byte[] tokenHash = hashToken(token);
+            if (tokenBlacklistIndex.isBlacklisted(tokenHash)) {
                 logger.debug("Token is blacklisted");
-                return false;
+                return null;
             }
 
-            // 2. Check token generation (for logout-all)
+            // 2. Check token generation (for logout-all) - legacy long-lived tokens only
             Long userId = Long.parseLong(claims.getSubject());
             Long tokenGeneration = claims.get("tokenGeneration", Long.class);
-            Long currentGeneration = userRepository.getTokenGeneration(userId).orElse(1L);
+            boolean accessToken = ACCESS_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
 
-            if (!tokenGeneration.equals(currentGeneration)) {
+            if (!accessToken && !tokenGenerationCache.getGeneration(userId).equals(tokenGeneration)) {
                 logger.debug("Token generation mismatch - token invalidated by logout-all");
-                return false;
+                return null;
             }
 
-            return true;
+            return new VerifiedToken(
+                    token,
+                    claims,
+                    tokenHash,
+                    userId,
+                    claims.get("email", String.class),
+                    tokenGeneration,
+                    claims.getIssuedAt(),
+                    claims.getExpiration()
+            );
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -132,7 +168,7 @@ public class JwtService {
         } catch (Exception e) {
             logger.error("JWT token validation error: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
@@ -140,9 +176,7 @@ public class JwtService {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -157,9 +191,7 @@ public class JwtService {
      */
     public Date getExpirationFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -170,6 +202,10 @@ public class JwtService {
         }
     }
 
+    public long getAccessExpiration() {
+        return accessExpiration;
+    }
+
     /**
      * Extract bearer token from Authorization header
      */
@@ -181,39 +217,15 @@ public class JwtService {
     }
 
     /**
-     * Hash token for blacklist storage
-     */
-    public String hashToken(String token) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            logger.error("Error hashing token", e);
-            throw new RuntimeException("Token hashing failed", e);
-        }
-    }
-
-    /**
-     * Generate signing key from secret
+     * Hash token for blacklist storage (raw 32-byte SHA-256)
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public byte[] hashToken(String token) {
+        return TokenHashing.sha256(token);
     }
 
     public Date getIssuedAtFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
             return claims.getIssuedAt();
@@ -225,9 +237,7 @@ public class JwtService {
 
     public Long getTokenGenerationFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = keyRing.parser()
                     .parseSignedClaims(token)
                     .getPayload();
             return claims.get("tokenGeneration", Long.class);
@@ -0,0 +1,199 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.jobdistributor.dashboard.entity.LoginAttempt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind recorder for login_attempts.
+ *
+ * Login only enqueues the attempt; a single background thread writes queued
+ * attempts with JDBC batch inserts once app.login-attempts.batch-size rows are
+ * waiting or app.login-attempts.flush-interval-ms has passed since the first.
+ *
+ * The queue is bounded. When it is full (e.g. a brute-force flood outpacing
+ * the database) new attempts are dropped and counted in
+ * auth.login_attempts.dropped rather than slowing down logins. Lockout does
+ * not depend on this table, so dropping audit rows never weakens it.
+ * On graceful shutdown the queue is drained before the application stops.
+ */
+@Service
+public class LoginAttemptRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptRecorder.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO login_attempts (email, user_id, ip_address, user_agent, success, failure_reason, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.login-attempts.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.login-attempts.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.login-attempts.flush-interval-ms:500}")
+    private long flushIntervalMillis;
+
+    @Value("${app.login-attempts.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMillis;
+
+    private BlockingQueue<LoginAttempt> queue;
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    private Counter recorded;
+    private Counter dropped;
+    private Counter failed;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        recorded = Counter.builder("auth.login_attempts.recorded")
+                .description("Login attempts written to the database")
+                .register(meterRegistry);
+        dropped = Counter.builder("auth.login_attempts.dropped")
+                .description("Login attempts discarded because the queue was full")
+                .register(meterRegistry);
+        failed = Counter.builder("auth.login_attempts.failed")
+                .description("Login attempts lost because a batch insert failed")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("auth.login_attempts.flush")
+                .description("Batch insert latency")
+                .register(meterRegistry);
+        Gauge.builder("auth.login_attempts.queue", this, recorder -> recorder.queue.size())
+                .description("Login attempts waiting to be written")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::run, "login-attempt-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Shutting down with {} login attempts not written", queue.size());
+        }
+    }
+
+    /**
+     * Queue an attempt for writing. Never blocks; drops the attempt if the queue is full.
+     */
+    public void record(LoginAttempt attempt) {
+        if (attempt.getCreatedAt() == null) {
+            attempt.setCreatedAt(LocalDateTime.now());
+        }
+        if (!queue.offer(attempt)) {
+            dropped.increment();
+            // Log the first drop and then every 1000th so a flood doesn't flood the log too
+            if ((long) dropped.count() % 1000 == 1) {
+                logger.warn("Login attempt queue full ({} entries) - dropping attempts ({} so far)",
+                        queueCapacity, (long) dropped.count());
+            }
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<LoginAttempt> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LoginAttempt first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Keep going until the queue is drained; stop() bounds the wait
+                running = false;
+            } catch (Exception e) {
+                logger.error("Login attempt flusher error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<LoginAttempt> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            LoginAttempt next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<LoginAttempt> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, attempt) -> {
+                ps.setString(1, attempt.getEmail());
+                if (attempt.getUserId() != null) {
+                    ps.setLong(2, attempt.getUserId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setString(3, attempt.getIpAddress());
+                ps.setString(4, attempt.getUserAgent());
+                ps.setBoolean(5, Boolean.TRUE.equals(attempt.getSuccess()));
+                ps.setString(6, attempt.getFailureReason());
+                ps.setTimestamp(7, Timestamp.valueOf(attempt.getCreatedAt()));
+            });
+            recorded.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            logger.error("Failed to write {} login attempts: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import net.jobdistributor.dashboard.dto.LogoutResult;
 import net.jobdistributor.dashboard.entity.TokenBlacklist;
 import net.jobdistributor.dashboard.repository.TokenBlacklistRepository;
 import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.security.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,22 +25,43 @@ public class LogoutService {
     private UserRepository userRepository;
 
     @Autowired
-    private JwtService jwtService;
+    private TokenBlacklistIndex tokenBlacklistIndex;
+
+    @Autowired
+    private TokenGenerationCache tokenGenerationCache;
+
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
     /**
      * Logout from current device (blacklist specific token)
      */
     @Transactional
-    public LogoutResult logout(String token, Long userId) {
+    public LogoutResult logout(VerifiedToken token, Long userId) {
+        return logout(token, null, userId);
+    }
+
+    /**
+     * Logout from current device: blacklist the access token and revoke the
+     * refresh token family it was issued with, if the client sent it
+     */
+    @Transactional
+    public LogoutResult logout(VerifiedToken token, String refreshToken, Long userId) {
         try {
-            String tokenHash = jwtService.hashToken(token);
-            LocalDateTime expiresAt = jwtService.getExpirationFromToken(token) != null
-                    ? jwtService.getExpirationFromToken(token).toInstant()
-                    .atZone(java.time.ZoneId.systemDefault()).toLocalDateTime()
-                    : LocalDateTime.now().plusDays(1);
+            if (refreshToken != null && !refreshToken.isBlank()) {
+                refreshTokenService.revokeFamily(refreshToken, userId);
+            }
+
+            byte[] tokenHash = token.tokenHash();
+            LocalDateTime expiresAt = token.expiresAtLocal();
 
             TokenBlacklist blacklistEntry = new TokenBlacklist(tokenHash, userId, expiresAt, "LOGOUT");
+            tokenBlacklistIndex.recordRevocation(tokenHash);
             tokenBlacklistRepository.save(blacklistEntry);
+            accountChangeLog.recordTokenRevoked(userId, tokenHash);
 
             logger.info("User {} logged out successfully", userId);
             return new LogoutResult(true, "Logged out successfully");
@@ -58,6 +80,10 @@ public class LogoutService {
         try {
             // Increment token generation - this invalidates ALL existing tokens
             userRepository.incrementTokenGeneration(userId);
+            tokenGenerationCache.invalidate(userId);
+            accountChangeLog.recordGenerationChanged(userId);
+            // Access tokens expire on their own; refresh tokens must stop working now
+            refreshTokenService.revokeAllForUser(userId);
 
             logger.info("User {} logged out from all devices", userId);
             return new LogoutResult(true, "Logged out from all devices. New logins required.");
@@ -0,0 +1,79 @@
+package net.jobdistributor.dashboard.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs long maintenance jobs (compaction, sweeps, retention, directory reloads)
+ * on their own thread.
+ *
+ * Their @Scheduled methods only hand the work over, so the scheduler threads
+ * stay free for the short, latency-sensitive tasks - above all
+ * AccountChangeLog.poll, which must run every second to keep the local caches
+ * trusted. Jobs run one at a time; a job that is still queued or running is not
+ * submitted again.
+ */
+@Service
+public class MaintenanceExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceExecutor.class);
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue a job unless one with the same name is queued or running.
+     * Returns false if it was not queued.
+     */
+    public boolean submit(String jobName, Runnable job) {
+        if (!inFlight.add(jobName)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    job.run();
+                } catch (Exception e) {
+                    logger.error("Maintenance job {} failed: {}", jobName, e.getMessage(), e);
+                } finally {
+                    inFlight.remove(jobName);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(jobName);
+            logger.warn("Maintenance job {} not started: executor is shut down", jobName);
+            return false;
+        }
+    }
+}
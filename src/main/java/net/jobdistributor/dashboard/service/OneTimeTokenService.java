@@ -0,0 +1,159 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.entity.OneTimeToken;
+import net.jobdistributor.dashboard.entity.OneTimeTokenPurpose;
+import net.jobdistributor.dashboard.repository.OneTimeTokenRepository;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Issues and redeems single-use tokens for email verification and password reset.
+ *
+ * A token reads "&lt;subject id in base36&gt;.&lt;random secret&gt;". The subject id
+ * travels in the token so a redemption is one conditional UPDATE on the unique
+ * token_hash index that both checks and consumes the token - the caller learns
+ * which email or user it was for without another query. Only the SHA-256 of the
+ * whole token is stored here. The raw link exists only in the email_outbox row
+ * that delivers it, and only until that row is SENT or FAILED
+ * (EmailOutboxDispatcher blanks the body), so a database leak exposes no links
+ * that have already been sent.
+ *
+ * Issuing a token uses up the subject's outstanding tokens of the same purpose.
+ * Expired rows are removed in chunks by a scheduled sweep on one node at a time.
+ */
+@Service
+public class OneTimeTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OneTimeTokenService.class);
+
+    private static final String SWEEP_JOB = "one-time-token-sweep";
+
+    private static final int SECRET_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private OneTimeTokenRepository oneTimeTokenRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MaintenanceExecutor maintenanceExecutor;
+
+    @Value("${app.one-time-tokens.sweep.chunk-size:1000}")
+    private int sweepChunkSize;
+
+    @Value("${app.one-time-tokens.sweep.time-budget-ms:20000}")
+    private long sweepTimeBudgetMillis;
+
+    /**
+     * Create a token for the subject and return it in raw form (for the email link)
+     */
+    @Transactional
+    public String issue(OneTimeTokenPurpose purpose, Long subjectId, Long userId, Duration validFor, String ipAddress) {
+        LocalDateTime now = LocalDateTime.now();
+        oneTimeTokenRepository.revokeOutstanding(purpose, subjectId, now);
+
+        byte[] secret = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(secret);
+        String rawToken = Long.toString(subjectId, 36) + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        oneTimeTokenRepository.save(new OneTimeToken(
+                TokenHashing.sha256(rawToken), purpose, subjectId, userId, now.plus(validFor), ipAddress));
+        return rawToken;
+    }
+
+    /**
+     * Redeem a token. Returns its subject id, or null if the token is malformed,
+     * unknown, expired or already used. Succeeds for one caller only.
+     */
+    public Long consume(OneTimeTokenPurpose purpose, String rawToken) {
+        Long subjectId = parseSubjectId(rawToken);
+        if (subjectId == null) {
+            return null;
+        }
+        int consumed = oneTimeTokenRepository.consume(
+                TokenHashing.sha256(rawToken), purpose, subjectId, LocalDateTime.now());
+        return consumed == 1 ? subjectId : null;
+    }
+
+    /**
+     * Whether consume() would currently succeed, without using the token up
+     */
+    public boolean isRedeemable(OneTimeTokenPurpose purpose, String rawToken) {
+        Long subjectId = parseSubjectId(rawToken);
+        return subjectId != null && oneTimeTokenRepository.isRedeemable(
+                TokenHashing.sha256(rawToken), purpose, subjectId, LocalDateTime.now());
+    }
+
+    /**
+     * Subject id carried by a token in the current format, or null (e.g. a
+     * legacy token issued before one_time_tokens existed)
+     */
+    public static Long parseSubjectId(String rawToken) {
+        if (rawToken == null) {
+            return null;
+        }
+        int separator = rawToken.indexOf('.');
+        if (separator <= 0 || separator == rawToken.length() - 1) {
+            return null;
+        }
+        try {
+            return Long.parseLong(rawToken, 0, separator, 36);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public int deleteForUser(Long userId) {
+        return oneTimeTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.one-time-tokens.sweep.interval-ms:3600000}")
+    public void scheduleSweep() {
+        maintenanceExecutor.submit(SWEEP_JOB, this::sweepExpired);
+    }
+
+    public void sweepExpired() {
+        if (!jobLockService.tryAcquire(SWEEP_JOB, Duration.ofMillis(sweepTimeBudgetMillis * 2))) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            long removed = 0;
+            while (System.currentTimeMillis() - start < sweepTimeBudgetMillis) {
+                List<Long> ids = oneTimeTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepChunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                removed += oneTimeTokenRepository.deleteByIdIn(ids);
+                if (ids.size() < sweepChunkSize) {
+                    break;
+                }
+            }
+            if (removed > 0) {
+                logger.info("Swept {} expired one-time tokens", removed);
+            }
+        } catch (Exception e) {
+            logger.error("One-time token sweep failed: {}", e.getMessage());
+        } finally {
+            jobLockService.release(SWEEP_JOB);
+        }
+    }
+}
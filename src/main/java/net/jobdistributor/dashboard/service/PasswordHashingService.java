@@ -0,0 +1,217 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.jobdistributor.dashboard.exception.PasswordHashingBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a dedicated, bounded thread pool.
+ *
+ * Hashing is CPU-bound (~100 ms per call), so it must not run while a request
+ * holds a JDBC connection, and it must not queue without limit during a login
+ * burst. When every worker is busy and the queue is full the call fails fast
+ * with PasswordHashingBusyException (HTTP 503) instead of waiting.
+ *
+ * Hashes are stored with an algorithm prefix ("{bcrypt}$2a$12$...") through a
+ * DelegatingPasswordEncoder, so the algorithm and cost can change without a
+ * mass reset. Rows written before prefixes existed are plain BCrypt and still
+ * verify. Unless app.auth.hashing.bcrypt-strength is set, the BCrypt cost is
+ * calibrated at startup to the highest strength whose verify time stays within
+ * app.auth.hashing.target-verify-ms on this hardware. verify() reports when a
+ * stored hash uses outdated parameters and returns a fresh hash for it, which
+ * login writes back.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    // Encoder id used for new hashes: bcrypt or pbkdf2
+    @Value("${app.auth.hashing.algorithm:bcrypt}")
+    private String algorithm;
+
+    // Fixed BCrypt cost; 0 calibrates against target-verify-ms
+    @Value("${app.auth.hashing.bcrypt-strength:0}")
+    private int configuredStrength;
+
+    @Value("${app.auth.hashing.target-verify-ms:250}")
+    private long targetVerifyMillis;
+
+    @Value("${app.auth.hashing.min-strength:10}")
+    private int minStrength;
+
+    @Value("${app.auth.hashing.max-strength:16}")
+    private int maxStrength;
+
+    private static final int CALIBRATION_STRENGTH = 8;
+
+    private PasswordEncoder passwordEncoder;
+
+    private int bcryptStrength;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejected;
+    private Timer hashTimer;
+
+    @PostConstruct
+    public void init() {
+        bcryptStrength = configuredStrength > 0 ? configuredStrength : calibrateBcryptStrength();
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported app.auth.hashing.algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Rows stored before prefixes were introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        passwordEncoder = delegating;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("auth.password.hashing.duration")
+                .description("Time spent in BCrypt per call")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Hashing requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.bcrypt_strength", this, service -> service.bcryptStrength)
+                .register(meterRegistry);
+
+        logger.info("Password hashing pool started with {} threads, queue capacity {}, algorithm {}, bcrypt strength {}",
+                poolSize, queueCapacity, algorithm, bcryptStrength);
+    }
+
+    /**
+     * Pick the highest BCrypt strength whose estimated verify time fits the target.
+     * Each strength step doubles the work, so one cheap measurement is enough.
+     */
+    private int calibrateBcryptStrength() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        String encoded = probe.encode("calibration");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", encoded);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetVerifyMillis);
+        int strength = CALIBRATION_STRENGTH;
+        while (strength < maxStrength && best << (strength + 1 - CALIBRATION_STRENGTH) <= targetNanos) {
+            strength++;
+        }
+        strength = Math.max(minStrength, strength);
+
+        logger.info("Calibrated BCrypt strength {} (strength {} verified in {} us, target {} ms)",
+                strength, CALIBRATION_STRENGTH, best / 1000, targetVerifyMillis);
+        return strength;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash a raw password for storage
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a raw password and, if it matches but was hashed with outdated
+     * parameters, compute its replacement hash in the same task
+     */
+    public CompletableFuture<PasswordCheck> verify(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                return new PasswordCheck(false, null);
+            }
+            String upgradedHash = passwordEncoder.upgradeEncoding(encodedPassword)
+                    ? passwordEncoder.encode(rawPassword)
+                    : null;
+            return new PasswordCheck(true, upgradedHash);
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new PasswordHashingBusyException());
+        }
+    }
+
+    /**
+     * Outcome of verify(); upgradedHash is set only when the stored hash should be replaced
+     */
+    public record PasswordCheck(boolean matches, String upgradedHash) {}
+}
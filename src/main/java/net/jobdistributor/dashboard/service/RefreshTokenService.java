@@ -0,0 +1,185 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.entity.RefreshToken;
+import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.repository.RefreshTokenRepository;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * Access tokens are short-lived and checked from their signature alone, so this
+ * is where revocation is enforced: a refresh fails if the token was revoked,
+ * already used, expired, or issued before the user's last logout-all.
+ * Reusing a rotated token is treated as theft and revokes the whole family,
+ * logging out both the attacker and the legitimate client.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${app.jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+
+    /**
+     * Start a new token family for a fresh login
+     */
+    @Transactional
+    public String issue(User user, String ipAddress) {
+        return issue(user.getId(), user.getTokenGeneration(), ipAddress);
+    }
+
+    @Transactional
+    public String issue(Long userId, Long tokenGeneration, String ipAddress) {
+        return issue(userId, tokenGeneration, UUID.randomUUID().toString(), ipAddress);
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     */
+    @Transactional
+    public RefreshResult refresh(String rawToken, String ipAddress) {
+        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByTokenHash(TokenHashing.sha256(rawToken));
+        if (tokenOpt.isEmpty()) {
+            return RefreshResult.failure("Invalid refresh token");
+        }
+
+        RefreshToken token = tokenOpt.get();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (token.getRevokedAt() != null) {
+            return RefreshResult.failure("Refresh token revoked");
+        }
+        if (token.getUsedAt() != null) {
+            revokeFamilyOnReuse(token, now);
+            return RefreshResult.failure("Refresh token already used");
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            return RefreshResult.failure("Refresh token expired");
+        }
+
+        // Same account rules as login, which admits every status: unverified users,
+        // and deactivated ones so they can restore the account. Only a deleted
+        // account ends the session here.
+        Optional<User> userOpt = userRepository.findById(token.getUserId());
+        if (userOpt.isEmpty()) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            return RefreshResult.failure("Account not found");
+        }
+
+        User user = userOpt.get();
+        if (!user.getTokenGeneration().equals(token.getTokenGeneration())) {
+            // Logged out everywhere (or password reset) since this family started
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            return RefreshResult.failure("Session has been terminated");
+        }
+
+        // Only one concurrent refresh can claim the token
+        if (refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            revokeFamilyOnReuse(token, now);
+            return RefreshResult.failure("Refresh token already used");
+        }
+
+        String newRefreshToken = issue(user.getId(), user.getTokenGeneration(), token.getFamilyId(), ipAddress);
+        String accessToken = jwtService.generateToken(user);
+
+        return new RefreshResult(true, "Token refreshed", accessToken, newRefreshToken, user);
+    }
+
+    /**
+     * Revoke the family a refresh token belongs to (logout on one device)
+     */
+    @Transactional
+    public void revokeFamily(String rawToken, Long userId) {
+        refreshTokenRepository.findByTokenHash(TokenHashing.sha256(rawToken))
+                .filter(token -> token.getUserId().equals(userId))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revoke every refresh token of a user (logout-all, password reset)
+     */
+    @Transactional
+    public int revokeAllForUser(Long userId) {
+        return refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    private String issue(Long userId, Long tokenGeneration, String familyId, String ipAddress) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(
+                TokenHashing.sha256(rawToken),
+                userId,
+                familyId,
+                tokenGeneration,
+                LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000),
+                ipAddress
+        ));
+        return rawToken;
+    }
+
+    private void revokeFamilyOnReuse(RefreshToken token, LocalDateTime now) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+        logger.warn("Refresh token reuse detected for user {} - revoked {} tokens in family {}",
+                token.getUserId(), revoked, token.getFamilyId());
+    }
+
+    public static class RefreshResult {
+        private final boolean success;
+        private final String message;
+        private final String accessToken;
+        private final String refreshToken;
+        private final User user;
+
+        public RefreshResult(boolean success, String message, String accessToken, String refreshToken, User user) {
+            this.success = success;
+            this.message = message;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.user = user;
+        }
+
+        static RefreshResult failure(String message) {
+            return new RefreshResult(false, message, null, null, null);
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public String getAccessToken() { return accessToken; }
+        public String getRefreshToken() { return refreshToken; }
+        public User getUser() { return user; }
+    }
+}
@@ -0,0 +1,221 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps authenticated SMTP connections open between outbox batches.
+ *
+ * Connections come from the auto-configured JavaMailSenderImpl's session and
+ * credentials. At most app.email-outbox.smtp.pool-size are open at once; idle
+ * ones are reused most-recently-used first, checked with a NOOP if they sat
+ * idle for longer than validate-after-idle-ms, and closed after max-idle-ms or
+ * once they have carried max-messages-per-connection messages (many servers
+ * cap messages per session).
+ *
+ * If the mail sender is not a JavaMailSenderImpl there is no session to pool
+ * and isSupported() returns false.
+ */
+@Service
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.email-outbox.smtp.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.email-outbox.smtp.max-idle-ms:60000}")
+    private long maxIdleMillis;
+
+    @Value("${app.email-outbox.smtp.validate-after-idle-ms:5000}")
+    private long validateAfterIdleMillis;
+
+    @Value("${app.email-outbox.smtp.max-messages-per-connection:500}")
+    private int maxMessagesPerConnection;
+
+    @Value("${app.email-outbox.smtp.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMillis;
+
+    // Most recently returned first, so a few hot connections serve light traffic
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+
+    private Semaphore permits;
+
+    private Counter opened;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(poolSize, true);
+
+        opened = Counter.builder("auth.smtp.connections.opened")
+                .description("SMTP connections established")
+                .register(meterRegistry);
+        Gauge.builder("auth.smtp.connections.active", this, pool -> poolSize - pool.permits.availablePermits())
+                .description("SMTP connections currently sending")
+                .register(meterRegistry);
+        Gauge.builder("auth.smtp.connections.idle", this, SmtpTransportPool::idleCount)
+                .description("Open SMTP connections waiting for work")
+                .register(meterRegistry);
+    }
+
+    public boolean isSupported() {
+        return mailSender instanceof JavaMailSenderImpl;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Take a connected transport, opening one if none is idle. Blocks while
+     * pool-size transports are in use.
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = pollIdle()) != null) {
+                long idleFor = System.currentTimeMillis() - pooled.lastUsedAt;
+                if (idleFor <= validateAfterIdleMillis || pooled.transport.isConnected()) {
+                    return pooled;
+                }
+                pooled.close();
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a transport. Broken or worn-out transports are closed instead of pooled.
+     */
+    public void release(PooledTransport pooled, boolean healthy) {
+        try {
+            pooled.lastUsedAt = System.currentTimeMillis();
+            if (healthy && pooled.messagesSent < maxMessagesPerConnection) {
+                synchronized (idle) {
+                    idle.push(pooled);
+                }
+            } else {
+                pooled.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.smtp.evict-interval-ms:15000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledTransport> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledTransport> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                PooledTransport pooled = iterator.next();
+                if (now - pooled.lastUsedAt > maxIdleMillis) {
+                    iterator.remove();
+                    expired.add(pooled);
+                }
+            }
+        }
+        // QUIT outside the lock - it is a network round trip
+        expired.forEach(PooledTransport::close);
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        List<PooledTransport> all;
+        synchronized (idle) {
+            all = new ArrayList<>(idle);
+            idle.clear();
+        }
+        all.forEach(PooledTransport::close);
+    }
+
+    public int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    private PooledTransport pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+
+    private PooledTransport open() throws MessagingException {
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        String protocol = sender.getProtocol() != null ? sender.getProtocol() : "smtp";
+        Transport transport = sender.getSession().getTransport(protocol);
+        transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+        opened.increment();
+        return new PooledTransport(transport);
+    }
+
+    /**
+     * A connected transport plus the bookkeeping the pool needs
+     */
+    public static class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public void messageSent() {
+            messagesSent++;
+        }
+
+        void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
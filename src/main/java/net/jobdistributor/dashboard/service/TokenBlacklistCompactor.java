@@ -0,0 +1,147 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.repository.TokenBlacklistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes expired rows from token_blacklist.
+ *
+ * Rows are deleted in small primary-key chunks, each in its own transaction,
+ * so no run holds locks for long. Only one node compacts at a time (job_locks
+ * lease). A run stops after its time budget; if expired rows were left behind
+ * (e.g. after downtime) the next run starts on the following tick instead of
+ * waiting a full interval, so the backlog is worked off quickly. Runs go
+ * through MaintenanceExecutor rather than on the scheduler thread.
+ */
+@Service
+public class TokenBlacklistCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistCompactor.class);
+
+    private static final String JOB_NAME = "token-blacklist-compaction";
+
+    @Autowired
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MaintenanceExecutor maintenanceExecutor;
+
+    @Value("${app.blacklist.compaction.interval-ms:600000}")
+    private long intervalMillis;
+
+    @Value("${app.blacklist.compaction.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.blacklist.compaction.time-budget-ms:20000}")
+    private long timeBudgetMillis;
+
+    @Value("${app.blacklist.compaction.pause-between-chunks-ms:50}")
+    private long pauseBetweenChunksMillis;
+
+    private volatile long nextRunAt = 0;
+
+    private Counter rowsRemoved;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        rowsRemoved = Counter.builder("auth.blacklist.compaction.rows_removed").register(meterRegistry);
+        runTimer = Timer.builder("auth.blacklist.compaction.run").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.blacklist.compaction.tick-ms:30000}")
+    public void tick() {
+        if (System.currentTimeMillis() < nextRunAt) {
+            return;
+        }
+        // A run takes up to the time budget; keep it off the scheduler thread
+        maintenanceExecutor.submit(JOB_NAME, this::runLocked);
+    }
+
+    private void runLocked() {
+        if (!jobLockService.tryAcquire(JOB_NAME, Duration.ofMillis(timeBudgetMillis * 2))) {
+            nextRunAt = System.currentTimeMillis() + intervalMillis;
+            return;
+        }
+
+        try {
+            CompactionResult result = compact();
+            nextRunAt = result.backlogRemaining()
+                    ? 0
+                    : System.currentTimeMillis() + intervalMillis;
+        } finally {
+            jobLockService.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Delete expired entries chunk by chunk until none are left or the time budget is spent
+     */
+    public CompactionResult compact() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long removed = 0;
+        int chunks = 0;
+        boolean backlogRemaining = false;
+
+        try {
+            while (true) {
+                List<Long> ids = tokenBlacklistRepository.findExpiredIds(now, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                removed += tokenBlacklistRepository.deleteByIdIn(ids);
+                chunks++;
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                if (System.currentTimeMillis() - start >= timeBudgetMillis) {
+                    backlogRemaining = true;
+                    break;
+                }
+                Thread.sleep(pauseBetweenChunksMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            backlogRemaining = true;
+        } catch (Exception e) {
+            logger.error("Token blacklist compaction failed after {} rows: {}", removed, e.getMessage(), e);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        rowsRemoved.increment(removed);
+        runTimer.record(elapsed, TimeUnit.MILLISECONDS);
+
+        if (removed > 0 || backlogRemaining) {
+            logger.info("Token blacklist compaction removed {} rows in {} chunks ({} ms){}",
+                    removed, chunks, elapsed, backlogRemaining ? " - backlog remaining" : "");
+        }
+
+        return new CompactionResult(removed, elapsed, backlogRemaining);
+    }
+
+    public record CompactionResult(long rowsRemoved, long elapsedMillis, boolean backlogRemaining) {}
+}
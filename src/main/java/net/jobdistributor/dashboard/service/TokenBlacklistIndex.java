@@ -0,0 +1,226 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.repository.TokenBlacklistRepository;
+import net.jobdistributor.dashboard.util.BloomFilter;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * In-memory Bloom filter in front of token_blacklist.
+ *
+ * Almost no token is blacklisted, so a "definitely not blacklisted" answer from the
+ * filter lets JwtService skip the database. Only possible hits are confirmed with
+ * TokenBlacklistRepository.existsByTokenHash.
+ *
+ * The filter can't remove entries, so it is rebuilt from the non-expired rows on a
+ * schedule. While a rebuild is running, new revocations are written to both the
+ * current and the next filter, and LogoutService re-adds each hash after commit,
+ * so a revocation committed after the rebuild's snapshot query is never lost.
+ */
+@Service
+public class TokenBlacklistIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistIndex.class);
+
+    @Autowired
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.blacklist.filter.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.blacklist.filter.min-capacity:10000}")
+    private long minCapacity;
+
+    private volatile BloomFilter current;
+
+    // Non-null only while a rebuild is in progress
+    private volatile BloomFilter next;
+
+    private volatile boolean ready = false;
+
+    // Set by AccountChangeLog - past this time revocations from other nodes may be missing
+    private volatile long trustedUntil = Long.MAX_VALUE;
+
+    private Counter lookups;
+    private Counter possibleHits;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void registerMetrics() {
+        lookups = Counter.builder("auth.blacklist.filter.lookups")
+                .description("Blacklist lookups answered by the Bloom filter")
+                .register(meterRegistry);
+        possibleHits = Counter.builder("auth.blacklist.filter.possible_hits")
+                .description("Lookups the filter could not rule out (sent to the database)")
+                .register(meterRegistry);
+        falsePositives = Counter.builder("auth.blacklist.filter.false_positives")
+                .description("Possible hits the database reported as not blacklisted")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.blacklist.filter.expected_fpp", this, TokenBlacklistIndex::expectedFalsePositiveRate)
+                .description("False-positive rate implied by the filter's fill ratio")
+                .register(meterRegistry);
+        Gauge.builder("auth.blacklist.filter.observed_fpp", this, TokenBlacklistIndex::observedFalsePositiveRate)
+                .description("False positives divided by lookups since startup")
+                .register(meterRegistry);
+        Gauge.builder("auth.blacklist.filter.memory", this, TokenBlacklistIndex::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.blacklist.filter.entries", this, TokenBlacklistIndex::entries)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check whether a token hash is blacklisted, touching the database only on possible hits
+     */
+    public boolean isBlacklisted(byte[] tokenHash) {
+        BloomFilter filter = current;
+        if (!ready || filter == null || System.currentTimeMillis() > trustedUntil) {
+            return tokenBlacklistRepository.existsByTokenHash(tokenHash);
+        }
+
+        lookups.increment();
+        if (!filter.mightContain(hash1(tokenHash), hash2(tokenHash))) {
+            return false;
+        }
+
+        possibleHits.increment();
+        boolean blacklisted = tokenBlacklistRepository.existsByTokenHash(tokenHash);
+        if (!blacklisted) {
+            falsePositives.increment();
+        }
+        return blacklisted;
+    }
+
+    /**
+     * Record a newly blacklisted token hash.
+     * When called inside a transaction the hash is added again after commit.
+     */
+    public void recordRevocation(byte[] tokenHash) {
+        add(tokenHash);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(tokenHash);
+                }
+            });
+        }
+    }
+
+    /**
+     * Trust the filter until the given time (epoch millis), then fall back to the database
+     */
+    public void trustUntil(long epochMillis) {
+        this.trustedUntil = epochMillis;
+    }
+
+    /**
+     * Initial load once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Periodic rebuild so expired entries drop out of the filter
+     */
+    @Scheduled(fixedDelayString = "${app.blacklist.filter.rebuild-interval-ms:900000}",
+            initialDelayString = "${app.blacklist.filter.rebuild-interval-ms:900000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long activeCount = tokenBlacklistRepository.countByExpiresAtAfter(now);
+            BloomFilter fresh = BloomFilter.create(Math.max(minCapacity, activeCount * 2), falsePositiveRate);
+
+            // Publish before reading the table so concurrent revocations land in both filters
+            next = fresh;
+
+            List<byte[]> hashes = tokenBlacklistRepository.findActiveTokenHashes(now);
+            for (byte[] hash : hashes) {
+                fresh.put(hash1(hash), hash2(hash));
+            }
+
+            current = fresh;
+            next = null;
+            ready = true;
+
+            logger.info("Token blacklist filter rebuilt: {} entries, {} KB, {} ms",
+                    hashes.size(), fresh.memoryBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            next = null;
+            logger.error("Token blacklist filter rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public double expectedFalsePositiveRate() {
+        BloomFilter filter = current;
+        return filter != null ? filter.expectedFalsePositiveRate() : 0.0;
+    }
+
+    public double observedFalsePositiveRate() {
+        double total = lookups.count();
+        return total == 0 ? 0.0 : falsePositives.count() / total;
+    }
+
+    public long memoryBytes() {
+        BloomFilter filter = current;
+        return filter != null ? filter.memoryBytes() : 0;
+    }
+
+    public long entries() {
+        BloomFilter filter = current;
+        return filter != null ? filter.insertions() : 0;
+    }
+
+    boolean mightContain(byte[] tokenHash) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(hash1(tokenHash), hash2(tokenHash));
+    }
+
+    private void add(byte[] tokenHash) {
+        long h1 = hash1(tokenHash);
+        long h2 = hash2(tokenHash);
+
+        // Read next before current: if a rebuild swaps in between, current is already the new filter
+        BloomFilter pending = next;
+        if (pending != null) {
+            pending.put(h1, h2);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(h1, h2);
+        }
+    }
+
+    // Token hashes are SHA-256 digests, so any 8 bytes of them are already uniform
+    private static long hash1(byte[] tokenHash) {
+        return TokenHashing.readLong(tokenHash, 0);
+    }
+
+    private static long hash2(byte[] tokenHash) {
+        return TokenHashing.readLong(tokenHash, 8) | 1L;
+    }
+}
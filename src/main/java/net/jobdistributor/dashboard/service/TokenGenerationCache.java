@@ -0,0 +1,171 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded userId -> token generation cache used by JwtService.verify.
+ *
+ * Entries expire after a TTL and the map is trimmed when it grows past its size
+ * limit. LogoutService invalidates a user's entry when the generation is
+ * incremented (once immediately and once after commit), and a load that raced
+ * with an invalidation is not cached, so a logout-all is never hidden by a
+ * stale entry on this node.
+ */
+@Service
+public class TokenGenerationCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.generation-cache.ttl-ms:30000}")
+    private long ttlMillis;
+
+    @Value("${app.auth.generation-cache.max-size:100000}")
+    private int maxSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; loads that started before a bump are not cached
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    // Set by AccountChangeLog - past this time changes from other nodes may be missing
+    private volatile long trustedUntil = Long.MAX_VALUE;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+    private Timer entryAge;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("auth.generation.cache.hits").register(meterRegistry);
+        misses = Counter.builder("auth.generation.cache.misses").register(meterRegistry);
+        evictions = Counter.builder("auth.generation.cache.evictions").register(meterRegistry);
+        entryAge = Timer.builder("auth.generation.cache.entry_age")
+                .description("Age of cached generations when served - an upper bound on staleness")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.generation.cache.size", entries, Map::size).register(meterRegistry);
+        Gauge.builder("auth.generation.cache.hit_ratio", this, TokenGenerationCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current token generation for a user (1 if the user no longer exists)
+     */
+    public Long getGeneration(Long userId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+
+        if (entry != null && now - entry.loadedAt < TimeUnit.MILLISECONDS.toNanos(ttlMillis)
+                && System.currentTimeMillis() <= trustedUntil) {
+            hits.increment();
+            entryAge.record(now - entry.loadedAt, TimeUnit.NANOSECONDS);
+            return entry.generation;
+        }
+
+        misses.increment();
+        long epoch = invalidationEpoch.get();
+        Long generation = userRepository.getTokenGeneration(userId).orElse(1L);
+
+        if (invalidationEpoch.get() == epoch) {
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(userId, new Entry(generation, now));
+        }
+        return generation;
+    }
+
+    /**
+     * Drop the cached generation for a user.
+     * When called inside a transaction the entry is dropped again after commit,
+     * so a read of the pre-commit value cannot stay cached.
+     */
+    public void invalidate(Long userId) {
+        invalidationEpoch.incrementAndGet();
+        entries.remove(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationEpoch.incrementAndGet();
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Serve cached entries until the given time (epoch millis), then go to the database
+     */
+    public void trustUntil(long epochMillis) {
+        this.trustedUntil = epochMillis;
+    }
+
+    /**
+     * Drop every cached generation
+     */
+    public void invalidateAll() {
+        invalidationEpoch.incrementAndGet();
+        entries.clear();
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        int removed = 0;
+
+        // Expired entries first
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().loadedAt >= ttlNanos) {
+                iterator.remove();
+                removed++;
+            }
+        }
+
+        // Still full: drop an arbitrary tenth of the map
+        if (entries.size() >= maxSize) {
+            int toRemove = Math.max(1, maxSize / 10);
+            iterator = entries.values().iterator();
+            while (iterator.hasNext() && toRemove-- > 0) {
+                iterator.next();
+                iterator.remove();
+                removed++;
+            }
+        }
+
+        evictions.increment(removed);
+    }
+
+    private record Entry(Long generation, long loadedAt) {}
+}
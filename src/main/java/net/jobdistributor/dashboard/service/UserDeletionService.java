@@ -1,23 +1,30 @@
 package net.jobdistributor.dashboard.service;
 
-import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.entity.DeletionJob;
+import net.jobdistributor.dashboard.entity.DeletionJobStatus;
 import net.jobdistributor.dashboard.entity.UserStatus;
 import net.jobdistributor.dashboard.repository.*;
+import net.jobdistributor.dashboard.security.AdminAuthorization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
-@Transactional
 public class UserDeletionService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserDeletionService.class);
 
+    private static final List<DeletionJobStatus> ACTIVE_JOB_STATUSES =
+            List.of(DeletionJobStatus.QUEUED, DeletionJobStatus.RUNNING);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -25,16 +32,23 @@ public class UserDeletionService {
     private EmailRepository emailRepository;
 
     @Autowired
-    private PasswordRepository passwordRepository;
+    private LoginAttemptRepository loginAttemptRepository;
 
     @Autowired
-    private PasswordResetRepository passwordResetRepository;
+    private DeletionJobRepository deletionJobRepository;
 
     @Autowired
-    private LoginAttemptRepository loginAttemptRepository;
+    private DeletionJobRunner deletionJobRunner;
 
     @Autowired
-    private TokenBlacklistRepository tokenBlacklistRepository;
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private AdminAuthorization adminAuthorization;
+
+    // Up to this many login attempts the deletion runs within the request
+    @Value("${app.deletion-jobs.inline-max-login-attempts:1000}")
+    private long inlineMaxLoginAttempts;
 
     // ========================================
     // HARD DELETE - Permanent Data Removal
@@ -49,53 +63,50 @@ public class UserDeletionService {
      * - All emails
      * - All passwords (history)
      * - All login attempts
-     * - All password reset tokens
+     * - All password reset and one-time tokens
+     * - All refresh tokens and blacklisted tokens
+     *
+     * The work is a DeletionJob. Accounts with a short login history are deleted
+     * right away on the calling thread; longer ones are handed to DeletionJobRunner
+     * and the result carries the job id to poll.
      */
     public UserDeletionResult hardDeleteUser(Long userId, Long requestingUserId) {
         try {
             // Security check - users can only delete themselves (unless admin)
-            if (!userId.equals(requestingUserId)) {
+            if (!userId.equals(requestingUserId) && !adminAuthorization.isAdmin(requestingUserId)) {
                 logger.warn("User {} attempted to hard delete user {} - access denied", requestingUserId, userId);
                 return new UserDeletionResult(false, "You can only delete your own account", null);
             }
 
-            // Check if user exists
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
+            if (!userRepository.existsById(userId)) {
                 return new UserDeletionResult(false, "User not found", null);
             }
+            if (deletionJobRepository.existsByUserIdAndStatusIn(userId, ACTIVE_JOB_STATUSES)) {
+                return new UserDeletionResult(false, "Account deletion is already in progress", null);
+            }
 
-            User user = userOpt.get();
-            String userEmail = getUserPrimaryEmail(user);
-
-            logger.info("🔴 HARD DELETE: Starting complete deletion of user: {} (ID: {})", userEmail, userId);
-
-            // Delete in specific order to maintain referential integrity
-            DeletionCounts counts = new DeletionCounts();
-
-            // 1. Delete login attempts (no foreign key constraints)
-            counts.loginAttempts = hardDeleteLoginAttempts(userId);
-
-            // 2. Delete password reset tokens
-            counts.passwordResets = hardDeletePasswordResets(userId);
-
-            // 3. Delete emails (has foreign key to user)
-            counts.emails = hardDeleteEmails(userId);
-
-            // 4. Delete passwords (has foreign key to user)
-            counts.passwords = hardDeletePasswords(userId);
-
-            // 5. Finally delete the user record itself
-            userRepository.deleteById(userId);
-            counts.users = 1;
+            DeletionJob job = deletionJobRepository.save(new DeletionJob(userId, requestingUserId));
+            long loginAttempts = loginAttemptRepository.countByUserId(userId);
 
-            logger.info("🔴 HARD DELETE COMPLETED: User {} permanently deleted. " +
-                            "Removed: {} user, {} emails, {} passwords, {} login attempts, {} password resets",
-                    userEmail, counts.users, counts.emails, counts.passwords,
-                    counts.loginAttempts, counts.passwordResets);
+            if (loginAttempts > inlineMaxLoginAttempts) {
+                logger.info("🔴 HARD DELETE: queued deletion job {} for user {} ({} login attempts)",
+                        job.getId(), userId, loginAttempts);
+                deletionJobRunner.submit(job.getId());
+                return new UserDeletionResult(true, "Account deletion started", null, job.getId(), true);
+            }
 
+            logger.info("🔴 HARD DELETE: Starting complete deletion of user {} (job {})", userId, job.getId());
+            DeletionJob finished = deletionJobRunner.run(job.getId());
+            if (finished == null || finished.getStatus() == DeletionJobStatus.RUNNING) {
+                // Claimed elsewhere, or interrupted - it completes in the background
+                return new UserDeletionResult(true, "Account deletion started", null, job.getId(), true);
+            }
+            if (finished.getStatus() != DeletionJobStatus.COMPLETED) {
+                return new UserDeletionResult(false, "Failed to delete user account: " + finished.getLastError(),
+                        null, job.getId(), false);
+            }
             return new UserDeletionResult(true, "User account and all data permanently deleted",
-                    new DeletionSummary(counts, DeletionType.HARD));
+                    new DeletionSummary(finished), job.getId(), false);
 
         } catch (Exception e) {
             logger.error("🔴 HARD DELETE FAILED for user {}: {}", userId, e.getMessage(), e);
@@ -103,6 +114,29 @@ public class UserDeletionService {
         }
     }
 
+    /**
+     * Deletion job for the status endpoint; only visible to whoever requested it and to admins
+     */
+    public Optional<DeletionJob> getDeletionJob(Long jobId, Long requestingUserId) {
+        return deletionJobRepository.findById(jobId)
+                .filter(job -> job.getRequestedBy().equals(requestingUserId)
+                        || adminAuthorization.isAdmin(requestingUserId));
+    }
+
+    /**
+     * Exact rows a hard delete of this user would remove, read in one query, with
+     * whether hardDeleteUser would run inline or as a background job and roughly how long it takes.
+     * Empty if the user does not exist.
+     */
+    public Optional<DeletionPreview> getDeletionPreview(Long userId) {
+        return userRepository.findDeletionPreviewCounts(userId).map(counts -> {
+            boolean backgroundJob = counts.loginAttempts() > inlineMaxLoginAttempts;
+            Duration estimate = deletionJobRunner.estimateDuration(
+                    counts.loginAttempts(), counts.totalRows() - counts.loginAttempts());
+            return new DeletionPreview(counts, backgroundJob, estimate);
+        });
+    }
+
     // ========================================
     // SOFT DELETE - Mark as Deleted (Reversible)
     // ========================================
@@ -122,51 +156,32 @@ public class UserDeletionService {
      * - Password history preserved
      * - Can be restored later
      */
+    @Transactional
     public UserDeletionResult softDeleteUser(Long userId, Long requestingUserId) {
         try {
-            // Security check
-            if (!userId.equals(requestingUserId)) {
+            // Security check - users can only deactivate themselves (unless admin)
+            if (!userId.equals(requestingUserId) && !adminAuthorization.isAdmin(requestingUserId)) {
                 logger.warn("User {} attempted to soft delete user {} - access denied", requestingUserId, userId);
                 return new UserDeletionResult(false, "You can only deactivate your own account", null);
             }
 
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return new UserDeletionResult(false, "User not found", null);
-            }
-
-            User user = userOpt.get();
-            String userEmail = getUserPrimaryEmail(user);
-
-            // Check if already soft deleted
-            if (user.getStatus() == UserStatus.INACTIVE) {
-                return new UserDeletionResult(false, "Account is already deactivated", null);
-            }
-
-            logger.info("🟡 SOFT DELETE: Starting soft deletion of user: {} (ID: {})", userEmail, userId);
+            logger.info("🟡 SOFT DELETE: Starting soft deletion of user {}", userId);
 
+            // Two statements; the user and email rows are never loaded
+            LocalDateTime now = LocalDateTime.now();
             DeletionCounts counts = new DeletionCounts();
-
-            // Mark user as inactive (but don't delete the record)
-            user.setStatus(UserStatus.INACTIVE);
-            user.setUpdatedAt(LocalDateTime.now());
-
-            // Mark all emails as deleted (but don't delete the records)
-            user.getEmails().forEach(email -> {
-                if (!email.getIsDeleted()) {
-                    email.setIsDeleted(true);
-                    email.setUpdatedAt(LocalDateTime.now());
-                    counts.emails++;
-                }
-            });
-
-            // Save the updated user (with inactive status and deleted emails)
-            userRepository.save(user);
-            counts.users = 1;
+            counts.users = userRepository.deactivate(userId, UserStatus.INACTIVE, now);
+            if (counts.users == 0) {
+                return userRepository.existsById(userId)
+                        ? new UserDeletionResult(false, "Account is already deactivated", null)
+                        : new UserDeletionResult(false, "User not found", null);
+            }
+            counts.emails = emailRepository.markDeletedByUserId(userId, true, now);
+            accountChangeLog.recordEmailsChanged(userId);
 
             logger.info("🟡 SOFT DELETE COMPLETED: User {} marked as inactive. " +
                             "Updated: {} user record, {} emails marked as deleted. Data preserved for recovery.",
-                    userEmail, counts.users, counts.emails);
+                    userId, counts.users, counts.emails);
 
             return new UserDeletionResult(true, "User account deactivated successfully (data preserved)",
                     new DeletionSummary(counts, DeletionType.SOFT));
@@ -185,47 +200,29 @@ public class UserDeletionService {
      * RESTORE: Reverse a soft delete operation
      * Only works if user was soft deleted (data still exists)
      */
+    @Transactional
     public UserDeletionResult restoreUser(Long userId, Long requestingUserId) {
         try {
             if (!userId.equals(requestingUserId)) {
                 return new UserDeletionResult(false, "You can only restore your own account", null);
             }
 
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return new UserDeletionResult(false, "User not found - may have been hard deleted", null);
-            }
-
-            User user = userOpt.get();
-            String userEmail = getUserPrimaryEmail(user);
-
-            if (user.getStatus() != UserStatus.INACTIVE) {
-                return new UserDeletionResult(false, "Account is not deactivated", null);
-            }
-
-            logger.info("🟢 RESTORE: Restoring user: {} (ID: {})", userEmail, userId);
+            logger.info("🟢 RESTORE: Restoring user {}", userId);
 
+            LocalDateTime now = LocalDateTime.now();
             DeletionCounts counts = new DeletionCounts();
-
-            // Restore user status
-            user.setStatus(UserStatus.ACTIVE);
-            user.setUpdatedAt(LocalDateTime.now());
-
-            // Restore emails
-            user.getEmails().forEach(email -> {
-                if (email.getIsDeleted()) {
-                    email.setIsDeleted(false);
-                    email.setUpdatedAt(LocalDateTime.now());
-                    counts.emails++;
-                }
-            });
-
-            userRepository.save(user);
-            counts.users = 1;
+            counts.users = userRepository.reactivate(userId, UserStatus.INACTIVE, UserStatus.ACTIVE, now);
+            if (counts.users == 0) {
+                return userRepository.existsById(userId)
+                        ? new UserDeletionResult(false, "Account is not deactivated", null)
+                        : new UserDeletionResult(false, "User not found - may have been hard deleted", null);
+            }
+            counts.emails = emailRepository.markDeletedByUserId(userId, false, now);
+            accountChangeLog.recordEmailsChanged(userId);
 
             logger.info("🟢 RESTORE COMPLETED: User {} reactivated. " +
                             "Restored: {} user record, {} emails",
-                    userEmail, counts.users, counts.emails);
+                    userId, counts.users, counts.emails);
 
             return new UserDeletionResult(true, "User account restored successfully",
                     new DeletionSummary(counts, DeletionType.RESTORE));
@@ -236,66 +233,6 @@ public class UserDeletionService {
         }
     }
 
-    // ========================================
-    // PRIVATE HELPER METHODS
-    // ========================================
-
-    private String getUserPrimaryEmail(User user) {
-        return user.getEmails().stream()
-                .filter(email -> email.getIsPrimary() && !email.getIsDeleted())
-                .map(email -> email.getEmailAddress())
-                .findFirst()
-                .orElse("unknown@domain.com");
-    }
-
-    private int hardDeleteLoginAttempts(Long userId) {
-        try {
-            long count = loginAttemptRepository.countByUserId(userId);
-            loginAttemptRepository.deleteByUserId(userId);
-            tokenBlacklistRepository.deleteByUserId(userId);
-            return (int) count;
-        } catch (Exception e) {
-            logger.error("Failed to delete login attempts for user {}: {}", userId, e.getMessage());
-            return 0;
-        }
-    }
-
-    private int hardDeletePasswordResets(Long userId) {
-        try {
-            // Count before deleting
-            long count = passwordResetRepository.count(); // Simple count for now
-            passwordResetRepository.deleteByUserId(userId);
-            return (int) Math.min(count, 10); // Reasonable estimate
-        } catch (Exception e) {
-            logger.error("Failed to delete password resets for user {}: {}", userId, e.getMessage());
-            return 0;
-        }
-    }
-
-    private int hardDeleteEmails(Long userId) {
-        try {
-            var emails = emailRepository.findByUserIdAndIsDeletedFalse(userId);
-            int count = emails.size();
-            emailRepository.deleteAll(emails);
-            return count;
-        } catch (Exception e) {
-            logger.error("Failed to delete emails for user {}: {}", userId, e.getMessage());
-            return 0;
-        }
-    }
-
-    private int hardDeletePasswords(Long userId) {
-        try {
-            var passwords = passwordRepository.findByUserIdOrderByCreatedAtDesc(userId);
-            int count = passwords.size();
-            passwordRepository.deleteAll(passwords);
-            return count;
-        } catch (Exception e) {
-            logger.error("Failed to delete passwords for user {}: {}", userId, e.getMessage());
-            return 0;
-        }
-    }
-
     // ========================================
     // RESULT CLASSES
     // ========================================
@@ -316,22 +253,52 @@ public class UserDeletionService {
         int passwords = 0;
         int loginAttempts = 0;
         int passwordResets = 0;
+        int tokens = 0;
     }
 
     public static class UserDeletionResult {
         private final boolean success;
         private final String message;
         private final DeletionSummary summary;
+        private final Long deletionJobId;
+        private final boolean pending;
 
         public UserDeletionResult(boolean success, String message, DeletionSummary summary) {
+            this(success, message, summary, null, false);
+        }
+
+        public UserDeletionResult(boolean success, String message, DeletionSummary summary,
+                                  Long deletionJobId, boolean pending) {
             this.success = success;
             this.message = message;
             this.summary = summary;
+            this.deletionJobId = deletionJobId;
+            this.pending = pending;
         }
 
         public boolean isSuccess() { return success; }
         public String getMessage() { return message; }
         public DeletionSummary getSummary() { return summary; }
+        public Long getDeletionJobId() { return deletionJobId; }
+        // Accepted but still running in the background
+        public boolean isPending() { return pending; }
+    }
+
+    public static class DeletionPreview {
+        private final DeletionPreviewCounts counts;
+        private final boolean backgroundJob;
+        private final Duration estimatedDuration;
+
+        public DeletionPreview(DeletionPreviewCounts counts, boolean backgroundJob, Duration estimatedDuration) {
+            this.counts = counts;
+            this.backgroundJob = backgroundJob;
+            this.estimatedDuration = estimatedDuration;
+        }
+
+        public DeletionPreviewCounts getCounts() { return counts; }
+        // Hard delete would return 202 with a deletion job to poll
+        public boolean isBackgroundJob() { return backgroundJob; }
+        public Duration getEstimatedDuration() { return estimatedDuration; }
     }
 
     public static class DeletionSummary {
@@ -340,6 +307,7 @@ public class UserDeletionService {
         private final int passwordsAffected;
         private final int loginAttemptsAffected;
         private final int passwordResetsAffected;
+        private final int tokensAffected;
         private final DeletionType type;
         private final String description;
 
@@ -349,16 +317,34 @@ public class UserDeletionService {
             this.passwordsAffected = counts.passwords;
             this.loginAttemptsAffected = counts.loginAttempts;
             this.passwordResetsAffected = counts.passwordResets;
+            this.tokensAffected = counts.tokens;
             this.type = type;
             this.description = type.getDescription();
         }
 
+        // Exact row counts of a finished deletion job
+        public DeletionSummary(DeletionJob job) {
+            this(countsOf(job), DeletionType.HARD);
+        }
+
+        private static DeletionCounts countsOf(DeletionJob job) {
+            DeletionCounts counts = new DeletionCounts();
+            counts.users = Math.toIntExact(job.getUsersDeleted());
+            counts.emails = Math.toIntExact(job.getEmailsDeleted());
+            counts.passwords = Math.toIntExact(job.getPasswordsDeleted());
+            counts.loginAttempts = Math.toIntExact(job.getLoginAttemptsDeleted());
+            counts.passwordResets = Math.toIntExact(job.getPasswordResetsDeleted());
+            counts.tokens = Math.toIntExact(job.getTokensDeleted());
+            return counts;
+        }
+
         // Getters
         public int getUsersAffected() { return usersAffected; }
         public int getEmailsAffected() { return emailsAffected; }
         public int getPasswordsAffected() { return passwordsAffected; }
         public int getLoginAttemptsAffected() { return loginAttemptsAffected; }
         public int getPasswordResetsAffected() { return passwordResetsAffected; }
+        public int getTokensAffected() { return tokensAffected; }
         public DeletionType getType() { return type; }
         public String getDescription() { return description; }
     }
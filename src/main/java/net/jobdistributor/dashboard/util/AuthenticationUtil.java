@@ -1,5 +1,6 @@
 package net.jobdistributor.dashboard.util;
 
+import net.jobdistributor.dashboard.security.DashboardPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -11,6 +12,9 @@ public class AuthenticationUtil {
     public static Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        if (authentication != null && authentication.getPrincipal() instanceof DashboardPrincipal principal) {
+            return principal.userId();
+        }
         if (authentication != null && authentication.getPrincipal() instanceof Long) {
             return (Long) authentication.getPrincipal();
         }
@@ -18,6 +22,19 @@ public class AuthenticationUtil {
         return null;
     }
 
+    /**
+     * Get current authenticated principal (token claims), or null if not authenticated with a JWT
+     */
+    public static DashboardPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof DashboardPrincipal principal) {
+            return principal;
+        }
+
+        return null;
+    }
+
     /**
      * Check if user is authenticated
      */
@@ -25,7 +42,8 @@ public class AuthenticationUtil {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication != null &&
                 authentication.isAuthenticated() &&
-                authentication.getPrincipal() instanceof Long;
+                (authentication.getPrincipal() instanceof DashboardPrincipal ||
+                        authentication.getPrincipal() instanceof Long);
     }
 
     /**
@@ -45,4 +63,15 @@ public class AuthenticationUtil {
         }
         return userId;
     }
+
+    /**
+     * Require authentication - throws exception if not authenticated
+     */
+    public static DashboardPrincipal requireCurrentPrincipal() {
+        DashboardPrincipal principal = getCurrentPrincipal();
+        if (principal == null) {
+            throw new SecurityException("User not authenticated");
+        }
+        return principal;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package net.jobdistributor.dashboard.util;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Primitive long-to-long hash map with open addressing and linear probing.
+ *
+ * Keys and values are interleaved in a single long[] (key at 2i, value at 2i+1),
+ * so a lookup touches one cache line in the common case and each entry costs
+ * 16 bytes of table space with no per-entry objects. Removal uses backward-shift
+ * deletion, so there are no tombstones. Key 0 is reserved for empty slots;
+ * callers map a 0 key to something else. Values must be non-negative (-1 means
+ * absent).
+ *
+ * Not thread-safe - callers provide their own locking.
+ */
+public class LongLongHashMap {
+
+    public static final long ABSENT = -1L;
+
+    private static final double MAX_LOAD = 0.7;
+
+    private long[] table;
+    private int mask;
+    private int size;
+
+    public LongLongHashMap(int expectedEntries) {
+        allocate(capacityFor(expectedEntries));
+    }
+
+    public long get(long key) {
+        int slot = slot(key);
+        while (true) {
+            long existing = table[slot << 1];
+            if (existing == key) {
+                return table[(slot << 1) + 1];
+            }
+            if (existing == 0) {
+                return ABSENT;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public void put(long key, long value) {
+        if (size + 1 > (mask + 1) * MAX_LOAD) {
+            resize((mask + 1) * 2);
+        }
+        int slot = slot(key);
+        while (true) {
+            long existing = table[slot << 1];
+            if (existing == key) {
+                table[(slot << 1) + 1] = value;
+                return;
+            }
+            if (existing == 0) {
+                table[slot << 1] = key;
+                table[(slot << 1) + 1] = value;
+                size++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean remove(long key) {
+        int slot = slot(key);
+        while (true) {
+            long existing = table[slot << 1];
+            if (existing == 0) {
+                return false;
+            }
+            if (existing == key) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Backward-shift: move later entries of the probe run into the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next << 1] != 0) {
+            int home = slot(table[next << 1]);
+            // Entry can fill the gap if its home is not cyclically within (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap << 1] = table[next << 1];
+                table[(gap << 1) + 1] = table[(next << 1) + 1];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap << 1] = 0;
+        table[(gap << 1) + 1] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Remove every entry whose value matches. Full scan - for rare bulk removals.
+     */
+    public int removeIfValue(LongPredicate predicate) {
+        long[] keys = new long[16];
+        int count = 0;
+        for (int i = 0; i <= mask; i++) {
+            long key = table[i << 1];
+            if (key != 0 && predicate.test(table[(i << 1) + 1])) {
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                }
+                keys[count++] = key;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            remove(keys[i]);
+        }
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * Table memory needed for the given number of entries
+     */
+    public static long estimateMemoryBytes(long entries) {
+        return (long) capacityFor(entries) * 2 * Long.BYTES;
+    }
+
+    private void resize(int newCapacity) {
+        long[] old = table;
+        int entries = size;
+        allocate(newCapacity);
+        size = entries;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0) {
+                int slot = slot(old[i]);
+                while (table[slot << 1] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot << 1] = old[i];
+                table[(slot << 1) + 1] = old[i + 1];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity * 2];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing spreads keys that are not already uniform
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 33) & mask;
+    }
+
+    private static int capacityFor(long entries) {
+        long needed = (long) Math.ceil(Math.max(16, entries) / MAX_LOAD);
+        long capacity = Long.highestOneBit(needed - 1) << 1;
+        if (capacity > (1 << 29)) {
+            throw new IllegalArgumentException("Too many entries: " + entries);
+        }
+        return (int) capacity;
+    }
+}
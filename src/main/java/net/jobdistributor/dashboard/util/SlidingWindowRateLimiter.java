@@ -0,0 +1,147 @@
+package net.jobdistributor.dashboard.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free sliding-window rate limiter.
+ *
+ * Each key's state is a single AtomicLong packing the window index with the
+ * previous and current window counts, so a check is one map lookup plus a CAS.
+ * The request rate is estimated the usual sliding-window way: the previous
+ * window's count weighted by how much of it still overlaps, plus the current
+ * count. Keys live in a ConcurrentHashMap (internally striped); keys idle for
+ * two full windows are removed by evictIdle().
+ *
+ * The table holds at most maxKeys keys. When it is full, idle keys are swept
+ * (at most once a second) and, if that frees nothing, a new key is let through
+ * without being tracked; keys already tracked keep being limited. Rejecting
+ * new keys instead would let anyone who can mint keys - random emails - lock
+ * out every user not yet in the table. Give each kind of key its own limiter,
+ * so a spray that saturates one kind (e.g. email) only suspends that kind for
+ * new keys while the others (e.g. per IP) keep enforcing.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int INDEX_SHIFT = COUNT_BITS * 2;
+    private static final long INDEX_MASK = (1L << (64 - INDEX_SHIFT)) - 1;
+
+    private final ConcurrentHashMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final int maxKeys;
+
+    private static final long FULL_SWEEP_INTERVAL_MILLIS = 1000;
+    private final AtomicLong lastFullSweepAt = new AtomicLong();
+    private final LongAdder untrackedWhileFull = new LongAdder();
+
+    public SlidingWindowRateLimiter(long windowMillis, int maxKeys) {
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Count one request for the key if it is within the limit.
+     * Returns 0 when allowed, otherwise the milliseconds until a request would be allowed.
+     */
+    public long tryAcquire(String key, int limit, long nowMillis) {
+        AtomicLong state = windows.get(key);
+        if (state == null) {
+            if (windows.size() >= maxKeys && !makeRoom(nowMillis)) {
+                // Still full (e.g. a spray of random emails) - not limited by this table
+                untrackedWhileFull.increment();
+                return 0;
+            }
+            state = windows.computeIfAbsent(key, k -> new AtomicLong(pack(windowIndex(nowMillis), 0, 0)));
+        }
+
+        long nowIndex = windowIndex(nowMillis);
+        double elapsed = (double) (nowMillis % windowMillis) / windowMillis;
+
+        while (true) {
+            long current = state.get();
+            long index = current >>> INDEX_SHIFT;
+            long previousCount = (current >>> COUNT_BITS) & COUNT_MASK;
+            long currentCount = current & COUNT_MASK;
+
+            if (index != nowIndex) {
+                previousCount = ((index + 1) & INDEX_MASK) == nowIndex ? currentCount : 0;
+                currentCount = 0;
+            }
+
+            double estimated = previousCount * (1 - elapsed) + currentCount;
+            if (estimated + 1 > limit) {
+                return retryAfterMillis(previousCount, currentCount, limit, elapsed);
+            }
+
+            long next = pack(nowIndex, previousCount, Math.min(currentCount + 1, COUNT_MASK));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove keys with no requests in the current or previous window
+     */
+    public int evictIdle(long nowMillis) {
+        long nowIndex = windowIndex(nowMillis);
+        int removed = 0;
+        for (var entry : windows.entrySet()) {
+            long state = entry.getValue().get();
+            long age = (nowIndex - (state >>> INDEX_SHIFT)) & INDEX_MASK;
+            // Conditional remove: a key touched since we read it stays
+            if (age >= 2 && windows.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * Requests for new keys let through unchecked because the table was full
+     */
+    public long untrackedWhileFull() {
+        return untrackedWhileFull.sum();
+    }
+
+    // One thread sweeps per interval; the others go straight to the size check
+    private boolean makeRoom(long nowMillis) {
+        long last = lastFullSweepAt.get();
+        if (nowMillis - last >= FULL_SWEEP_INTERVAL_MILLIS && lastFullSweepAt.compareAndSet(last, nowMillis)) {
+            evictIdle(nowMillis);
+        }
+        return windows.size() < maxKeys;
+    }
+
+    public void clear() {
+        windows.clear();
+    }
+
+    private long windowIndex(long nowMillis) {
+        return (nowMillis / windowMillis) & INDEX_MASK;
+    }
+
+    private long retryAfterMillis(long previousCount, long currentCount, int limit, double elapsed) {
+        double waitFraction;
+        if (currentCount + 1 <= limit && previousCount > 0) {
+            // Wait for enough of the previous window to slide out
+            waitFraction = (1 - (double) (limit - 1 - currentCount) / previousCount) - elapsed;
+        } else {
+            // Current window is full: wait for the next one, then for it to slide out
+            double nextWindowFraction = currentCount > 0 ? 1 - (double) (limit - 1) / currentCount : 0;
+            waitFraction = (1 - elapsed) + Math.max(0, nextWindowFraction);
+        }
+        return Math.max(1, (long) Math.ceil(waitFraction * windowMillis));
+    }
+
+    private static long pack(long index, long previousCount, long currentCount) {
+        return (index << INDEX_SHIFT) | (previousCount << COUNT_BITS) | currentCount;
+    }
+}
@@ -0,0 +1,82 @@
+package net.jobdistributor.dashboard.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hashing for tokens on the authentication hot path.
+ *
+ * Each thread reuses its own MessageDigest and input buffer, so hashing a JWT
+ * allocates only the 32-byte result. Hex is produced with a lookup table
+ * straight into the caller's buffer.
+ */
+public final class TokenHashing {
+
+    public static final int HASH_LENGTH = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    private TokenHashing() {}
+
+    /**
+     * SHA-256 of the token's UTF-8 bytes
+     */
+    public static byte[] sha256(String token) {
+        MessageDigest digest = DIGEST.get();
+        int length = token.length();
+
+        byte[] buffer = BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+            BUFFER.set(buffer);
+        }
+
+        // JWTs and our opaque tokens are ASCII - copy chars directly instead of encoding
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c >= 0x80) {
+                return digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            }
+            buffer[i] = (byte) c;
+        }
+
+        digest.update(buffer, 0, length);
+        return digest.digest();
+    }
+
+    /**
+     * Append the lowercase hex form of a hash to the given builder
+     */
+    public static StringBuilder appendHex(byte[] hash, StringBuilder target) {
+        for (byte b : hash) {
+            target.append(HEX[(b >> 4) & 0x0f]).append(HEX[b & 0x0f]);
+        }
+        return target;
+    }
+
+    public static String toHex(byte[] hash) {
+        return appendHex(hash, new StringBuilder(hash.length * 2)).toString();
+    }
+
+    /**
+     * Read 8 bytes of a hash as a big-endian long
+     */
+    public static long readLong(byte[] hash, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (hash[i] & 0xffL);
+        }
+        return value;
+    }
+}
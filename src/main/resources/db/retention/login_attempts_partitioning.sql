@@ -0,0 +1,27 @@
+-- One-time conversion of login_attempts to daily RANGE partitions on created_at (MySQL 8).
+--
+-- Afterwards DataRetentionService keeps partitions created a few days ahead and
+-- drops partitions older than app.retention.login-attempts.days instead of
+-- deleting rows. Until this runs it falls back to chunked deletes.
+--
+-- MySQL requires the partitioning column in every unique key, so the primary
+-- key becomes (id, created_at); id stays AUTO_INCREMENT and unique in practice.
+-- On a large table run this with an online schema change tool (e.g.
+-- pt-online-schema-change) rather than a blocking ALTER.
+--
+-- Partitions are named after their exclusive upper bound: p20261018 holds rows
+-- before 2026-10-18. Generate one line per day from the oldest row you keep to
+-- a few days past today; p_future must stay last.
+
+ALTER TABLE login_attempts
+    MODIFY created_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE login_attempts
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p20261018 VALUES LESS THAN ('2026-10-18'),
+        PARTITION p20261019 VALUES LESS THAN ('2026-10-19'),
+        PARTITION p20261020 VALUES LESS THAN ('2026-10-20'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,14 @@
+-- Timestamp indexes for DataRetentionService's chunked deletes (MySQL 8).
+--
+-- Each chunk is "SELECT id FROM <table> WHERE <timestamp> < ? ORDER BY
+-- <timestamp> LIMIT n". With these indexes that reads n index entries (InnoDB
+-- secondary indexes carry the primary key, so the table rows are not touched);
+-- without them every run scans the whole table. InnoDB builds both indexes
+-- online; inserts continue while they are created.
+--
+-- On a partitioned login_attempts the index is local to each partition and is
+-- dropped with it.
+
+CREATE INDEX idx_login_attempts_created_at ON login_attempts (created_at);
+
+CREATE INDEX idx_password_resets_expires ON password_resets (token_expires_at);
@@ -0,0 +1,25 @@
+-- One-time conversion of the token hash columns from 64 hex characters in
+-- VARCHAR(128) to the raw 32-byte SHA-256 digest in BINARY(32) (MySQL 8).
+--
+-- Needed on every schema created before token hashes became binary, whatever
+-- spring.jpa.hibernate.ddl-auto is set to: "update" never changes the type of
+-- an existing column. Until it runs, lookups by the binary digest never match
+-- the stored hex strings, so revoked tokens are accepted again.
+--
+-- Stop every node first (or drain to nodes that are all on the new version):
+-- older nodes write hex strings, which do not fit BINARY(32). The UPDATEs only
+-- touch 64-character values, so re-running the script is harmless.
+
+-- token_blacklist
+ALTER TABLE token_blacklist MODIFY token_hash VARBINARY(128) NOT NULL;
+
+UPDATE token_blacklist SET token_hash = UNHEX(token_hash) WHERE LENGTH(token_hash) = 64;
+
+ALTER TABLE token_blacklist MODIFY token_hash BINARY(32) NOT NULL;
+
+-- account_change_events (only TOKEN_REVOKED rows carry a hash)
+ALTER TABLE account_change_events MODIFY token_hash VARBINARY(128) NULL;
+
+UPDATE account_change_events SET token_hash = UNHEX(token_hash) WHERE LENGTH(token_hash) = 64;
+
+ALTER TABLE account_change_events MODIFY token_hash BINARY(32) NULL;
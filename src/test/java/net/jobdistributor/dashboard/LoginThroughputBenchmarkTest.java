@@ -0,0 +1,145 @@
+package net.jobdistributor.dashboard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jobdistributor.dashboard.repository.LoginCredentials;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.service.AuthService;
+import net.jobdistributor.dashboard.service.PasswordHashingService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Login throughput and JDBC pool wait with BCrypt inside the transaction (the
+ * old AuthService) versus the current path: hash on the hashing pool, then a
+ * short transaction on the completion pool.
+ *
+ * Timing-based, so it only runs on request:
+ *   mvn test -Dbenchmark=true -Dtest=LoginThroughputBenchmarkTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginThroughputBenchmarkTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int CLIENTS = 32;
+    private static final int LOGINS = 400;
+
+    private static final String EMAIL = "benchmark@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private static ConfigurableApplicationContext node;
+
+    @BeforeAll
+    static void startNode() {
+        node = new SpringApplicationBuilder(DashboardApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:login-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.mail.host=localhost",
+                        "app.email-outbox.enabled=false",
+                        "app.jwt.secret=login-benchmark-secret-that-is-long-enough-for-hs256",
+                        "app.auth.hashing.bcrypt-strength=10",
+                        "app.auth.hashing.queue-capacity=" + LOGINS,
+                        "app.auth.completion.threads=" + POOL_SIZE,
+                        "app.auth.completion.queue-capacity=" + LOGINS
+                )
+                .run();
+
+        AuthService.SignupResult signup = node.getBean(AuthService.class)
+                .signup(EMAIL, "Bench", "Mark", "JobDistributor", "Tester", null, PASSWORD, "127.0.0.1")
+                .join();
+        assertTrue(signup.isSuccess(), signup.getMessage());
+    }
+
+    @AfterAll
+    static void stopNode() {
+        if (node != null) node.close();
+    }
+
+    @Test
+    void hashingOutsideTheTransactionCutsPoolWait() throws Exception {
+        // Warm up both paths (JIT, connection pool, caches)
+        measure(this::loginHashingInsideTransaction, 40);
+        measure(this::login, 40);
+
+        Result before = measure(this::loginHashingInsideTransaction, LOGINS);
+        Result after = measure(this::login, LOGINS);
+
+        System.out.printf("Login benchmark (%d clients, pool of %d, bcrypt 10, %d logins)%n", CLIENTS, POOL_SIZE, LOGINS);
+        System.out.printf("  before: %.1f logins/s, mean pool wait %.2f ms, max %.2f ms%n",
+                before.loginsPerSecond(), before.meanPoolWaitMillis(), before.maxPoolWaitMillis());
+        System.out.printf("  after:  %.1f logins/s, mean pool wait %.2f ms, max %.2f ms%n",
+                after.loginsPerSecond(), after.meanPoolWaitMillis(), after.maxPoolWaitMillis());
+
+        assertTrue(after.meanPoolWaitMillis() < before.meanPoolWaitMillis(),
+                "pool wait should drop: before " + before + ", after " + after);
+    }
+
+    // Current path
+    private boolean login() {
+        return node.getBean(AuthService.class).login(EMAIL, PASSWORD, "127.0.0.1", "benchmark").join().isSuccess();
+    }
+
+    // The old shape: one transaction holding a connection through BCrypt
+    private boolean loginHashingInsideTransaction() {
+        UserRepository userRepository = node.getBean(UserRepository.class);
+        PasswordHashingService hashing = node.getBean(PasswordHashingService.class);
+        return Boolean.TRUE.equals(node.getBean(TransactionTemplate.class).execute(status -> {
+            LoginCredentials credentials = userRepository.findLoginCredentials(EMAIL).orElseThrow();
+            boolean matches = hashing.verify(PASSWORD, credentials.encryptedPassword()).join().matches();
+            if (matches) {
+                userRepository.recordSuccessfulLogin(credentials.userId(), "127.0.0.1", LocalDateTime.now());
+            }
+            return matches;
+        }));
+    }
+
+    private Result measure(BooleanSupplier login, int logins) throws Exception {
+        Timer acquire = node.getBean(MeterRegistry.class).find("hikaricp.connections.acquire").timer();
+        assertNotNull(acquire, "Hikari metrics not registered");
+        long acquiresBefore = acquire.count();
+        double waitBefore = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(clients.submit(login::getAsBoolean));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.MINUTES));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long acquires = acquire.count() - acquiresBefore;
+        double waitMillis = acquire.totalTime(TimeUnit.MILLISECONDS) - waitBefore;
+        return new Result(logins / elapsedSeconds, acquires == 0 ? 0 : waitMillis / acquires,
+                acquire.max(TimeUnit.MILLISECONDS));
+    }
+
+    private record Result(double loginsPerSecond, double meanPoolWaitMillis, double maxPoolWaitMillis) {}
+}
@@ -0,0 +1,137 @@
+package net.jobdistributor.dashboard;
+
+import net.jobdistributor.dashboard.entity.Email;
+import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.entity.UserStatus;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.security.VerifiedToken;
+import net.jobdistributor.dashboard.service.JwtService;
+import net.jobdistributor.dashboard.service.LogoutService;
+import net.jobdistributor.dashboard.service.RefreshTokenService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two dashboard nodes sharing one database: a logout on node A must be
+ * honoured by node B within the configured max staleness, and refresh tokens
+ * revoked on node A must be rejected by node B.
+ */
+class MultiInstanceRevocationTest {
+
+    private static final long MAX_STALENESS_MS = 1500;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) nodeB.close();
+        if (nodeA != null) nodeA.close();
+    }
+
+    @Test
+    void logoutOnOneNodeIsSeenByTheOther() throws Exception {
+        User user = createUser("logout@example.com");
+        String token = nodeA.getBean(JwtService.class).generateToken(user);
+
+        VerifiedToken verifiedOnA = nodeA.getBean(JwtService.class).verify(token);
+        assertNotNull(verifiedOnA);
+        // Warm node B's caches with the still-valid token
+        assertNotNull(nodeB.getBean(JwtService.class).verify(token));
+
+        assertTrue(nodeA.getBean(LogoutService.class).logout(verifiedOnA, user.getId()).isSuccess());
+
+        assertNull(nodeA.getBean(JwtService.class).verify(token));
+        assertWithin(MAX_STALENESS_MS, () -> nodeB.getBean(JwtService.class).verify(token) == null);
+    }
+
+    @Test
+    void logoutAllStopsRefreshOnTheOtherNode() {
+        User user = createUser("logout-all@example.com");
+        String refreshToken = nodeA.getBean(RefreshTokenService.class).issue(user, "127.0.0.1");
+
+        assertTrue(nodeA.getBean(LogoutService.class).logoutAllDevices(user.getId()).isSuccess());
+
+        // Revocation is enforced at refresh time straight from the database
+        assertFalse(nodeB.getBean(RefreshTokenService.class).refresh(refreshToken, "127.0.0.1").isSuccess());
+    }
+
+    @Test
+    void reusedRefreshTokenRevokesTheFamily() {
+        User user = createUser("refresh-reuse@example.com");
+        String first = nodeA.getBean(RefreshTokenService.class).issue(user, "127.0.0.1");
+
+        RefreshTokenService.RefreshResult rotated = nodeA.getBean(RefreshTokenService.class).refresh(first, "127.0.0.1");
+        assertTrue(rotated.isSuccess());
+        assertNotNull(nodeB.getBean(JwtService.class).verify(rotated.getAccessToken()));
+
+        // Replaying the rotated token on another node kills the live one too
+        assertFalse(nodeB.getBean(RefreshTokenService.class).refresh(first, "127.0.0.1").isSuccess());
+        assertFalse(nodeA.getBean(RefreshTokenService.class).refresh(rotated.getRefreshToken(), "127.0.0.1").isSuccess());
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(DashboardApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:shared-dashboard;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.mail.host=localhost",
+                        "app.jwt.secret=multi-instance-test-secret-that-is-long-enough-for-hs256",
+                        "app.jwt.access-expiration=3600000",
+                        "app.change-log.poll-interval-ms=200",
+                        "app.change-log.max-staleness-ms=" + MAX_STALENESS_MS,
+                        "app.auth.generation-cache.ttl-ms=600000"
+                )
+                .run();
+    }
+
+    private static User createUser(String emailAddress) {
+        User user = new User();
+        user.setFirstName("Multi");
+        user.setLastName("Node");
+        user.setOrganization("JobDistributor");
+        user.setJobRole("Tester");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+
+        Email email = new Email();
+        email.setUser(user);
+        email.setEmailAddress(emailAddress);
+        email.setIsPrimary(true);
+        email.setCreatedAt(LocalDateTime.now());
+        email.setUpdatedAt(LocalDateTime.now());
+        user.setEmails(List.of(email));
+
+        return nodeA.getBean(UserRepository.class).save(user);
+    }
+
+    private static void assertWithin(long millis, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Condition not met within " + millis + " ms");
+    }
+}
@@ -0,0 +1,91 @@
+package net.jobdistributor.dashboard.config;
+
+import net.jobdistributor.dashboard.entity.IdGenerators;
+import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.entity.UserStatus;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rows written under IDENTITY (here: inserted with explicit ids) must stay
+ * below the first pooled block.
+ *
+ * Needs a context whose generators have not handed out a block yet, and runs
+ * without a test transaction: the generator reads id_generators on its own
+ * connection and would otherwise wait on the uncommitted seed.
+ */
+@DataJpaTest
+@Import({PersistenceConfig.class, IdGeneratorSeeder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+class IdGeneratorSeederTest {
+
+    private static final long EXISTING_ID = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdGeneratorSeeder seeder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void generatedIdsStartAboveExistingRows() {
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = EXISTING_ID - 2; id <= EXISTING_ID; id++) {
+            jdbcTemplate.update("INSERT INTO users (id, first_name, organization, job_role, status, token_generation, " +
+                    "failed_login_attempts, created_at, updated_at) VALUES (?, 'Legacy', 'JobDistributor', 'Tester', " +
+                    "'ACTIVE', 1, 0, ?, ?)", id, now, now);
+        }
+
+        // As on the first start after the switch from IDENTITY
+        seeder.seed();
+
+        assertEquals(EXISTING_ID + IdGenerators.ALLOCATION_SIZE, jdbcTemplate.queryForObject(
+                "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE + " WHERE " +
+                        IdGenerators.SEGMENT_COLUMN + " = 'users'", Long.class));
+
+        Long first = userRepository.save(newUser(now)).getId();
+        Long second = userRepository.save(newUser(now)).getId();
+
+        assertTrue(first > EXISTING_ID, "first generated id " + first);
+        assertTrue(second > first);
+        assertEquals(5, userRepository.count());
+    }
+
+    @Test
+    void seedingNeverLowersASegment() {
+        jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = 1000000 WHERE " +
+                IdGenerators.SEGMENT_COLUMN + " = 'deletion_jobs'");
+
+        seeder.seed();
+
+        assertEquals(1_000_000L, jdbcTemplate.queryForObject(
+                "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE + " WHERE " +
+                        IdGenerators.SEGMENT_COLUMN + " = 'deletion_jobs'", Long.class));
+    }
+
+    private static User newUser(LocalDateTime now) {
+        User user = new User();
+        user.setFirstName("Pooled");
+        user.setOrganization("JobDistributor");
+        user.setJobRole("Tester");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        return user;
+    }
+}
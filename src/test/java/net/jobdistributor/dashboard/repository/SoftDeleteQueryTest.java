@@ -0,0 +1,122 @@
+package net.jobdistributor.dashboard.repository;
+
+import jakarta.persistence.EntityManager;
+import net.jobdistributor.dashboard.entity.Email;
+import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.entity.UserStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Soft delete and restore as bulk statements, and the read paths that skip deleted emails
+ */
+@DataJpaTest
+class SoftDeleteQueryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Test
+    void deactivateAndRestoreChangeEveryRowOnce() {
+        User user = createUser("alice@example.com", "alice@work.example");
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(1, userRepository.deactivate(user.getId(), UserStatus.INACTIVE, now));
+        assertEquals(2, emailRepository.markDeletedByUserId(user.getId(), true, now));
+        assertEquals(0, userRepository.deactivate(user.getId(), UserStatus.INACTIVE, now));
+        assertEquals(0, emailRepository.markDeletedByUserId(user.getId(), true, now));
+
+        assertEquals(1, userRepository.reactivate(user.getId(), UserStatus.INACTIVE, UserStatus.ACTIVE, now));
+        assertEquals(2, emailRepository.markDeletedByUserId(user.getId(), false, now));
+        assertEquals(0, userRepository.reactivate(user.getId(), UserStatus.INACTIVE, UserStatus.ACTIVE, now));
+    }
+
+    @Test
+    void bulkEmailUpdateOnlyTouchesUsersInTheExpectedStatus() {
+        User leaving = createUser("dave@example.com");
+        User reactivated = createUser("erin@example.com");
+        List<Long> targets = List.of(leaving.getId(), reactivated.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        // Only one of the two targets was still deactivatable when the UPDATE ran
+        assertEquals(1, userRepository.deactivate(leaving.getId(), UserStatus.INACTIVE, now));
+
+        assertEquals(1, emailRepository.markDeletedByUserIdsWithStatus(targets, UserStatus.INACTIVE, true, now));
+        entityManager.clear();
+        assertTrue(emailRepository.findByEmailAddress("dave@example.com").orElseThrow().getIsDeleted());
+        assertFalse(emailRepository.findByEmailAddress("erin@example.com").orElseThrow().getIsDeleted());
+    }
+
+    @Test
+    void deletedEmailsAreNotLoaded() {
+        User user = createUser("bob@example.com", "bob@old.example");
+        Email old = emailRepository.findByEmailAddress("bob@old.example").orElseThrow();
+        old.setIsDeleted(true);
+        entityManager.flush();
+        entityManager.clear();
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(1, reloaded.getEmails().size());
+        assertEquals("bob@example.com", reloaded.getEmails().get(0).getEmailAddress());
+        assertTrue(userRepository.findByAnyEmail("bob@old.example").isEmpty());
+
+        // Still reserved for signup
+        assertTrue(emailRepository.findByEmailAddress("bob@old.example").isPresent());
+    }
+
+    @Test
+    void deactivatedAccountIsNotFoundByPrimaryEmailButCanStillSignIn() {
+        User user = createUser("carol@example.com");
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.deactivate(user.getId(), UserStatus.INACTIVE, now);
+        emailRepository.markDeletedByUserId(user.getId(), true, now);
+        entityManager.clear();
+
+        assertTrue(userRepository.findByPrimaryEmail("carol@example.com").isEmpty());
+        assertTrue(userRepository.findLoginCredentials("carol@example.com").isPresent());
+    }
+
+    private User createUser(String primaryAddress, String... otherAddresses) {
+        LocalDateTime now = LocalDateTime.now();
+
+        User user = new User();
+        user.setFirstName("Soft");
+        user.setLastName("Delete");
+        user.setOrganization("JobDistributor");
+        user.setJobRole("Tester");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        userRepository.save(user);
+
+        saveEmail(user, primaryAddress, true, now);
+        for (String address : otherAddresses) {
+            saveEmail(user, address, false, now);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return user;
+    }
+
+    private void saveEmail(User user, String address, boolean primary, LocalDateTime now) {
+        Email email = new Email();
+        email.setUser(user);
+        email.setEmailAddress(address);
+        email.setIsPrimary(primary);
+        email.setCreatedAt(now);
+        email.setUpdatedAt(now);
+        emailRepository.save(email);
+    }
+}
@@ -0,0 +1,112 @@
+package net.jobdistributor.dashboard.repository;
+
+import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.entity.UserStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Failed-login bookkeeping must stay exact when bad passwords arrive in parallel.
+ * Runs without a test transaction so every thread commits on its own connection.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryLockoutTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void parallelFailuresAreAllCounted() throws Exception {
+        Long userId = createUser().getId();
+
+        int updated = runInParallel(40, () ->
+                userRepository.recordFailedLogin(userId, 1000, LocalDateTime.now().plusHours(1), LocalDateTime.now()));
+
+        User user = userRepository.findById(userId).orElseThrow();
+        assertEquals(40, updated);
+        assertEquals(40, user.getFailedLoginAttempts());
+        assertNull(user.getLockedUntil());
+    }
+
+    @Test
+    void lockoutStopsCountingAtTheThreshold() throws Exception {
+        Long userId = createUser().getId();
+
+        int updated = runInParallel(40, () ->
+                userRepository.recordFailedLogin(userId, 5, LocalDateTime.now().plusHours(1), LocalDateTime.now()));
+
+        User user = userRepository.findById(userId).orElseThrow();
+        assertEquals(5, updated);
+        assertEquals(5, user.getFailedLoginAttempts());
+        assertNotNull(user.getLockedUntil());
+        assertTrue(user.getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void successfulLoginResetsLockout() {
+        Long userId = createUser().getId();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            userRepository.recordFailedLogin(userId, 5, now.plusHours(1), now);
+        }
+
+        userRepository.recordSuccessfulLogin(userId, "10.0.0.1", LocalDateTime.now());
+
+        User user = userRepository.findById(userId).orElseThrow();
+        assertEquals(0, user.getFailedLoginAttempts());
+        assertNull(user.getLockedUntil());
+        assertEquals("10.0.0.1", user.getLastLoginIp());
+    }
+
+    private int runInParallel(int calls, Callable<Integer> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < calls; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setFirstName("Lock");
+        user.setLastName("Out");
+        user.setOrganization("JobDistributor");
+        user.setJobRole("Tester");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+}
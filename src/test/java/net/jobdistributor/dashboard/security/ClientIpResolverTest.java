@@ -0,0 +1,58 @@
+package net.jobdistributor.dashboard.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIpResolverTest {
+
+    @Test
+    void forwardingHeadersFromUntrustedClientsAreIgnored() {
+        ClientIpResolver resolver = resolver();
+
+        MockHttpServletRequest request = request("203.0.113.7", "198.51.100.1");
+        request.addHeader("X-Real-IP", "198.51.100.2");
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void rightmostUntrustedHopBehindOurProxiesIsTheClient() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8");
+
+        // The client made up the first entry; our proxies appended the rest
+        MockHttpServletRequest request = request("10.0.0.5", "1.2.3.4, 203.0.113.7, 10.0.0.9");
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void realIpHeaderIsUsedOnlyFromATrustedProxy() {
+        ClientIpResolver resolver = resolver("10.0.0.5");
+
+        MockHttpServletRequest request = request("10.0.0.5", null);
+        request.addHeader("X-Real-IP", "203.0.113.7");
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    private static ClientIpResolver resolver(String... trustedProxies) {
+        ClientIpResolver resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "trustedProxies", List.of(trustedProxies));
+        resolver.init();
+        return resolver;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package net.jobdistributor.dashboard.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "default-secret-that-is-long-enough-for-hs256";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keyRemovedFromTheFileIsRetiredOnReload() throws Exception {
+        Path keysFile = directory.resolve("jwt-keys.properties");
+        write(keysFile, 1_000, """
+                active=2025q3
+                key.2025q2=old-secret-that-is-long-enough-for-hs256!!
+                key.2025q3=new-secret-that-is-long-enough-for-hs256!!
+                """);
+        JwtKeyRing keyRing = keyRing(keysFile);
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "2025q2", "2025q3"), keyRing.keyIds());
+
+        // Step 3 of the rotation, done in the file
+        write(keysFile, 2_000, """
+                active=2025q3
+                key.2025q3=new-secret-that-is-long-enough-for-hs256!!
+                """);
+        keyRing.reloadKeysFile();
+
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "2025q3"), keyRing.keyIds());
+        assertEquals("2025q3", keyRing.activeSigningKey().keyId());
+    }
+
+    @Test
+    void fileNamingAMissingActiveKeyKeepsTheCurrentKeys() throws Exception {
+        Path keysFile = directory.resolve("jwt-keys.properties");
+        write(keysFile, 1_000, "active=2025q3\nkey.2025q3=new-secret-that-is-long-enough-for-hs256!!\n");
+        JwtKeyRing keyRing = keyRing(keysFile);
+
+        write(keysFile, 2_000, "active=2025q4\nkey.2025q3=new-secret-that-is-long-enough-for-hs256!!\n");
+        keyRing.reloadKeysFile();
+
+        assertEquals(Set.of(JwtKeyRing.DEFAULT_KEY_ID, "2025q3"), keyRing.keyIds());
+        assertEquals("2025q3", keyRing.activeSigningKey().keyId());
+    }
+
+    private static JwtKeyRing keyRing(Path keysFile) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "configuredKeys", "");
+        ReflectionTestUtils.setField(keyRing, "configuredActiveKeyId", JwtKeyRing.DEFAULT_KEY_ID);
+        ReflectionTestUtils.setField(keyRing, "keysFile", keysFile.toString());
+        keyRing.init();
+        return keyRing;
+    }
+
+    // Explicit timestamps: the reload only reacts to a changed modification time
+    private static void write(Path file, long lastModifiedMillis, String content) throws Exception {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModifiedMillis));
+    }
+}
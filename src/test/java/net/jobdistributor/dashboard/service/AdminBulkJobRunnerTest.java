@@ -0,0 +1,238 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.entity.*;
+import net.jobdistributor.dashboard.repository.AdminBulkJobRepository;
+import net.jobdistributor.dashboard.repository.DeletionJobRepository;
+import net.jobdistributor.dashboard.repository.EmailRepository;
+import net.jobdistributor.dashboard.repository.JobLockRepository;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import net.jobdistributor.dashboard.security.AdminAuthorization;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs set-based admin bulk jobs against H2.
+ * Runs without a test transaction so each chunk commits on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdminBulkJobRunnerTest {
+
+    private static final long ADMIN_ID = 1_000_000L;
+
+    @Autowired private AdminBulkJobRepository adminBulkJobRepository;
+    @Autowired private DeletionJobRepository deletionJobRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EmailRepository emailRepository;
+    @Autowired private JobLockRepository jobLockRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private AdminBulkJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        JobLockService jobLockService = new JobLockService();
+        ReflectionTestUtils.setField(jobLockService, "jobLockRepository", jobLockRepository);
+
+        runner = new AdminBulkJobRunner();
+        ReflectionTestUtils.setField(runner, "adminBulkJobRepository", adminBulkJobRepository);
+        ReflectionTestUtils.setField(runner, "userRepository", userRepository);
+        ReflectionTestUtils.setField(runner, "emailRepository", emailRepository);
+        ReflectionTestUtils.setField(runner, "deletionJobRepository", deletionJobRepository);
+        ReflectionTestUtils.setField(runner, "accountChangeLog", new AccountChangeLog());
+        ReflectionTestUtils.setField(runner, "adminAuthorization", new AdminAuthorization());
+        ReflectionTestUtils.setField(runner, "jobLockService", jobLockService);
+        ReflectionTestUtils.setField(runner, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(runner, "enabled", false);
+        ReflectionTestUtils.setField(runner, "chunkSize", 4);
+        ReflectionTestUtils.setField(runner, "claimTimeoutMillis", 60_000L);
+        runner.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.stop();
+        adminBulkJobRepository.deleteAll();
+        deletionJobRepository.deleteAll();
+        emailRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void deactivatesOnlyTheMatchingOrganization() {
+        List<User> leaving = createUsers("Leaving Corp", 10);
+        List<User> staying = createUsers("Staying Corp", 3);
+        AdminBulkJob job = queue(AdminBulkOperation.DEACTIVATE, "Leaving Corp", 1000);
+
+        AdminBulkJob finished = runner.run(job.getId());
+
+        assertEquals(AdminBulkJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(10L, finished.getProcessed());
+        assertEquals(10L, finished.getSucceeded());
+        assertEquals(0L, finished.getFailed());
+        assertEquals(leaving.get(leaving.size() - 1).getId(), finished.getLastUserId());
+        assertTrue(leaving.stream().allMatch(user -> statusOf(user) == UserStatus.INACTIVE));
+        assertTrue(staying.stream().allMatch(user -> statusOf(user) == UserStatus.ACTIVE));
+        assertEquals(13, emailRepository.count());
+        assertEquals(3, emailRepository.findAll().stream().filter(email -> !email.getIsDeleted()).count());
+    }
+
+    @Test
+    void secondRunSkipsUsersAlreadyDone() {
+        createUsers("Leaving Corp", 5);
+        runner.run(queue(AdminBulkOperation.DEACTIVATE, "Leaving Corp", 1000).getId());
+
+        AdminBulkJob again = runner.run(queue(AdminBulkOperation.DEACTIVATE, "Leaving Corp", 1000).getId());
+
+        assertEquals(5L, again.getProcessed());
+        assertEquals(0L, again.getSucceeded());
+        assertEquals(5L, again.getSkipped());
+    }
+
+    @Test
+    void restoreReversesDeactivate() {
+        List<User> users = createUsers("Returning Corp", 6);
+        runner.run(queue(AdminBulkOperation.DEACTIVATE, "Returning Corp", 1000).getId());
+
+        AdminBulkJob restored = runner.run(queue(AdminBulkOperation.RESTORE, "Returning Corp", 1000).getId());
+
+        assertEquals(6L, restored.getSucceeded());
+        assertTrue(users.stream().allMatch(user -> statusOf(user) == UserStatus.ACTIVE));
+        assertTrue(emailRepository.findAll().stream().noneMatch(Email::getIsDeleted));
+    }
+
+    @Test
+    void resumesFromTheCursorAfterTheRunnerDied() {
+        List<User> users = createUsers("Leaving Corp", 8);
+        AdminBulkJob job = queue(AdminBulkOperation.DEACTIVATE, "Leaving Corp", 1000);
+        job.setStatus(AdminBulkJobStatus.RUNNING);
+        job.setClaimedBy("dead-node");
+        job.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        job.setLastUserId(users.get(3).getId());
+        job.setProcessed(4L);
+        job = adminBulkJobRepository.save(job);
+
+        AdminBulkJob finished = runner.run(job.getId());
+
+        assertEquals(AdminBulkJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(8L, finished.getProcessed());
+        assertEquals(4L, finished.getSucceeded());
+        assertEquals(UserStatus.ACTIVE, statusOf(users.get(0)));
+        assertEquals(UserStatus.INACTIVE, statusOf(users.get(7)));
+    }
+
+    @Test
+    void adminsAndTheRequesterAreNeverTouched() {
+        List<User> users = createUsers("Leaving Corp", 3);
+        AdminAuthorization adminAuthorization = new AdminAuthorization();
+        ReflectionTestUtils.setField(adminAuthorization, "adminUserIds", List.of(users.get(0).getId()));
+        ReflectionTestUtils.setField(runner, "adminAuthorization", adminAuthorization);
+
+        AdminBulkJob job = new AdminBulkJob(AdminBulkOperation.DEACTIVATE, users.get(1).getId(), 1000);
+        job.setFilterOrganization("Leaving Corp");
+        AdminBulkJob finished = runner.run(adminBulkJobRepository.save(job).getId());
+
+        assertEquals(1L, finished.getSucceeded());
+        assertEquals(2L, finished.getSkipped());
+        assertEquals(UserStatus.ACTIVE, statusOf(users.get(0)));
+        assertEquals(UserStatus.ACTIVE, statusOf(users.get(1)));
+        assertEquals(UserStatus.INACTIVE, statusOf(users.get(2)));
+    }
+
+    @Test
+    void throttleSpreadsRowsOverTime() {
+        createUsers("Slow Corp", 8);
+        AdminBulkJob job = queue(AdminBulkOperation.DEACTIVATE, "Slow Corp", 20);
+
+        long start = System.currentTimeMillis();
+        runner.run(job.getId());
+
+        // 8 rows at 20 rows/s
+        assertTrue(System.currentTimeMillis() - start >= 350);
+    }
+
+    @Test
+    void cancelledJobIsNotRun() {
+        User user = createUsers("Leaving Corp", 1).get(0);
+        AdminBulkJob job = queue(AdminBulkOperation.DEACTIVATE, "Leaving Corp", 1000);
+        adminBulkJobRepository.cancel(job.getId(), AdminBulkJobStatus.CANCELLED,
+                List.of(AdminBulkJobStatus.QUEUED, AdminBulkJobStatus.RUNNING), LocalDateTime.now());
+
+        assertNull(runner.run(job.getId()));
+        assertEquals(UserStatus.ACTIVE, statusOf(user));
+    }
+
+    @Test
+    void hardDeleteSkipsUsersWhoseDeletionIsAlreadyRunning() {
+        List<User> users = createUsers("Leaving Corp", 2);
+        deletionJobRepository.save(new DeletionJob(users.get(0).getId(), users.get(0).getId()));
+
+        DeletionJobRunner deletionJobRunner = mock(DeletionJobRunner.class);
+        when(deletionJobRunner.run(anyLong())).thenAnswer(invocation -> {
+            DeletionJob deletionJob = deletionJobRepository.findById(invocation.getArgument(0)).orElseThrow();
+            deletionJob.setStatus(DeletionJobStatus.COMPLETED);
+            return deletionJob;
+        });
+        ReflectionTestUtils.setField(runner, "deletionJobRunner", deletionJobRunner);
+
+        AdminBulkJob finished = runner.run(queue(AdminBulkOperation.HARD_DELETE, "Leaving Corp", 1000).getId());
+
+        assertEquals(1L, finished.getSucceeded());
+        assertEquals(1L, finished.getSkipped());
+        verify(deletionJobRunner, times(1)).run(anyLong());
+        // No second DeletionJob queued next to the one already in progress
+        assertEquals(1, deletionJobRepository.findAll().stream()
+                .filter(deletionJob -> deletionJob.getUserId().equals(users.get(0).getId())).count());
+    }
+
+    private AdminBulkJob queue(AdminBulkOperation operation, String organization, int rowsPerSecond) {
+        AdminBulkJob job = new AdminBulkJob(operation, ADMIN_ID, rowsPerSecond);
+        job.setFilterOrganization(organization);
+        return adminBulkJobRepository.save(job);
+    }
+
+    private UserStatus statusOf(User user) {
+        return userRepository.findById(user.getId()).orElseThrow().getStatus();
+    }
+
+    private List<User> createUsers(String organization, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setFirstName("Bulk");
+            user.setLastName("User" + i);
+            user.setOrganization(organization);
+            user.setJobRole("Tester");
+            user.setStatus(UserStatus.ACTIVE);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user = userRepository.save(user);
+
+            Email email = new Email();
+            email.setUser(user);
+            email.setEmailAddress("user" + i + "@" + organization.replace(' ', '-').toLowerCase() + ".example");
+            email.setIsPrimary(true);
+            email.setCreatedAt(now);
+            email.setUpdatedAt(now);
+            emailRepository.save(email);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,122 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jobdistributor.dashboard.entity.LoginAttempt;
+import net.jobdistributor.dashboard.entity.PasswordReset;
+import net.jobdistributor.dashboard.repository.JobLockRepository;
+import net.jobdistributor.dashboard.repository.LoginAttemptRepository;
+import net.jobdistributor.dashboard.repository.PasswordResetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * H2 has no partitioning, so this covers the chunked-delete fallback.
+ * Runs without a test transaction so each chunk commits on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataRetentionServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    @Autowired
+    private PasswordResetRepository passwordResetRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    private DataRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptRepository.deleteAll();
+        passwordResetRepository.deleteAll();
+
+        JobLockService jobLockService = new JobLockService();
+        ReflectionTestUtils.setField(jobLockService, "jobLockRepository", jobLockRepository);
+
+        service = new DataRetentionService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "jobLockService", jobLockService);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "loginAttemptsRetentionDays", 90);
+        ReflectionTestUtils.setField(service, "passwordResetsRetentionDays", 30);
+        ReflectionTestUtils.setField(service, "partitionsAheadDays", 7);
+        ReflectionTestUtils.setField(service, "chunkSize", 3);
+        ReflectionTestUtils.setField(service, "timeBudgetMillis", 10_000L);
+        ReflectionTestUtils.setField(service, "pauseBetweenChunksMillis", 0L);
+        service.init();
+    }
+
+    @Test
+    void expiredRowsAreDeletedInChunksRecentOnesKept() {
+        for (int i = 0; i < 10; i++) {
+            loginAttempt(LocalDateTime.now().minusDays(120));
+        }
+        loginAttempt(LocalDateTime.now().minusDays(10));
+        passwordReset("old", LocalDateTime.now().minusDays(45));
+        passwordReset("recent", LocalDateTime.now().minusDays(1));
+
+        List<DataRetentionService.RetentionResult> results = service.runOnce();
+
+        assertEquals(10, results.get(0).rowsDeleted());
+        assertEquals(1, results.get(1).rowsDeleted());
+        assertFalse(results.get(0).backlogRemaining());
+        assertEquals(1, loginAttemptRepository.count());
+        assertEquals(1, passwordResetRepository.count());
+        assertEquals("recent", passwordResetRepository.findAll().get(0).getResetToken());
+    }
+
+    @Test
+    void spentTimeBudgetLeavesBacklogForTheNextRun() {
+        ReflectionTestUtils.setField(service, "timeBudgetMillis", 0L);
+        for (int i = 0; i < 7; i++) {
+            loginAttempt(LocalDateTime.now().minusDays(120));
+        }
+
+        DataRetentionService.RetentionResult first = service.runOnce().get(0);
+        assertEquals(3, first.rowsDeleted());
+        assertTrue(first.backlogRemaining());
+
+        ReflectionTestUtils.setField(service, "timeBudgetMillis", 10_000L);
+        assertEquals(4, service.runOnce().get(0).rowsDeleted());
+        assertEquals(0, loginAttemptRepository.count());
+    }
+
+    @Test
+    void dailyPartitionNamesCarryTheirUpperBound() {
+        assertEquals(LocalDate.of(2026, 10, 18), DataRetentionService.partitionBound("p20261018"));
+        assertNull(DataRetentionService.partitionBound("p_future"));
+        assertNull(DataRetentionService.partitionBound("p2026"));
+        assertNull(DataRetentionService.partitionBound(null));
+    }
+
+    private void loginAttempt(LocalDateTime createdAt) {
+        LoginAttempt attempt = new LoginAttempt("someone@example.com", 1L, "10.0.0.1", "test", false, "BAD_PASSWORD");
+        attempt.setCreatedAt(createdAt);
+        loginAttemptRepository.save(attempt);
+    }
+
+    private void passwordReset(String token, LocalDateTime expiresAt) {
+        PasswordReset reset = new PasswordReset(1L, token, expiresAt, "10.0.0.1");
+        reset.setCreatedAt(expiresAt.minusHours(1));
+        passwordResetRepository.save(reset);
+    }
+}
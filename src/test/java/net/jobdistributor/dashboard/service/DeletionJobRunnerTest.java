@@ -0,0 +1,218 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.entity.*;
+import net.jobdistributor.dashboard.repository.*;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs real deletion jobs against H2.
+ * Runs without a test transaction so each chunk commits on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeletionJobRunnerTest {
+
+    @Autowired private DeletionJobRepository deletionJobRepository;
+    @Autowired private LoginAttemptRepository loginAttemptRepository;
+    @Autowired private TokenBlacklistRepository tokenBlacklistRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private PasswordResetRepository passwordResetRepository;
+    @Autowired private OneTimeTokenRepository oneTimeTokenRepository;
+    @Autowired private EmailRepository emailRepository;
+    @Autowired private PasswordRepository passwordRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JobLockRepository jobLockRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private JobLockService jobLockService;
+    private DeletionJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        jobLockService = new JobLockService();
+        ReflectionTestUtils.setField(jobLockService, "jobLockRepository", jobLockRepository);
+
+        OneTimeTokenService oneTimeTokenService = new OneTimeTokenService();
+        ReflectionTestUtils.setField(oneTimeTokenService, "oneTimeTokenRepository", oneTimeTokenRepository);
+
+        runner = new DeletionJobRunner();
+        ReflectionTestUtils.setField(runner, "deletionJobRepository", deletionJobRepository);
+        ReflectionTestUtils.setField(runner, "loginAttemptRepository", loginAttemptRepository);
+        ReflectionTestUtils.setField(runner, "tokenBlacklistRepository", tokenBlacklistRepository);
+        ReflectionTestUtils.setField(runner, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(runner, "passwordResetRepository", passwordResetRepository);
+        ReflectionTestUtils.setField(runner, "oneTimeTokenService", oneTimeTokenService);
+        ReflectionTestUtils.setField(runner, "emailRepository", emailRepository);
+        ReflectionTestUtils.setField(runner, "passwordRepository", passwordRepository);
+        ReflectionTestUtils.setField(runner, "userRepository", userRepository);
+        ReflectionTestUtils.setField(runner, "accountChangeLog", new AccountChangeLog());
+        ReflectionTestUtils.setField(runner, "jobLockService", jobLockService);
+        ReflectionTestUtils.setField(runner, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(runner, "enabled", false);
+        ReflectionTestUtils.setField(runner, "chunkSize", 10);
+        ReflectionTestUtils.setField(runner, "chunkPauseMillis", 0L);
+        ReflectionTestUtils.setField(runner, "claimTimeoutMillis", 60_000L);
+        runner.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.stop();
+        deletionJobRepository.deleteAll();
+        loginAttemptRepository.deleteAll();
+        tokenBlacklistRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        passwordResetRepository.deleteAll();
+        oneTimeTokenRepository.deleteAll();
+        passwordRepository.deleteAll();
+        emailRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void deletesEveryTableAndReportsExactCounts() {
+        User user = createUser("leaving@example.com", 25);
+        User other = createUser("staying@example.com", 3);
+        DeletionJob job = deletionJobRepository.save(new DeletionJob(user.getId(), user.getId()));
+
+        DeletionJob finished = runner.run(job.getId());
+
+        assertEquals(DeletionJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(25L, finished.getLoginAttemptsDeleted());
+        assertEquals(2L, finished.getEmailsDeleted());
+        assertEquals(2L, finished.getPasswordsDeleted());
+        assertEquals(1L, finished.getPasswordResetsDeleted());
+        assertEquals(2L, finished.getTokensDeleted());
+        assertEquals(1L, finished.getUsersDeleted());
+        assertNotNull(finished.getFinishedAt());
+        assertNull(finished.getClaimedBy());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        assertTrue(userRepository.existsById(other.getId()));
+        assertEquals(3, loginAttemptRepository.countByUserId(other.getId()));
+        assertEquals(0, loginAttemptRepository.countByUserId(user.getId()));
+    }
+
+    @Test
+    void previewCountsMatchWhatTheJobDeletes() {
+        User user = createUser("previewed@example.com", 25);
+        createUser("bystander@example.com", 3);
+
+        DeletionPreviewCounts counts = userRepository.findDeletionPreviewCounts(user.getId()).orElseThrow();
+        assertEquals(UserStatus.ACTIVE, counts.status());
+        assertEquals(25L, counts.loginAttempts());
+        assertEquals(2L, counts.emails());
+        assertEquals(2L, counts.passwords());
+        assertEquals(1L, counts.passwordResets());
+        assertEquals(1L, counts.blacklistedTokens());
+        assertEquals(1L, counts.refreshTokens());
+        assertEquals(0L, counts.oneTimeTokens());
+        assertEquals(33L, counts.totalRows());
+
+        DeletionJob finished = runner.run(
+                deletionJobRepository.save(new DeletionJob(user.getId(), user.getId())).getId());
+        assertEquals(counts.loginAttempts(), finished.getLoginAttemptsDeleted());
+        assertEquals(counts.emails(), finished.getEmailsDeleted());
+        assertEquals(counts.blacklistedTokens() + counts.refreshTokens() + counts.oneTimeTokens(),
+                finished.getTokensDeleted());
+        assertTrue(userRepository.findDeletionPreviewCounts(user.getId()).isEmpty());
+    }
+
+    @Test
+    void estimateAddsPausesBetweenLoginHistoryChunks() {
+        ReflectionTestUtils.setField(runner, "estimatedRowsPerSecond", 1000L);
+        ReflectionTestUtils.setField(runner, "chunkPauseMillis", 50L);
+
+        // 25 attempts in chunks of 10: 3 chunks, 2 pauses
+        assertEquals(30 + 100, runner.estimateDuration(25, 5).toMillis());
+        assertEquals(10, runner.estimateDuration(0, 10).toMillis());
+    }
+
+    @Test
+    void jobHeldByAnotherRunnerIsLeftAlone() {
+        User user = createUser("busy@example.com", 5);
+        DeletionJob job = new DeletionJob(user.getId(), user.getId());
+        job.setStatus(DeletionJobStatus.RUNNING);
+        job.setClaimedBy("other-node");
+        job.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+        job = deletionJobRepository.save(job);
+
+        assertNull(runner.run(job.getId()));
+        assertTrue(userRepository.existsById(user.getId()));
+    }
+
+    @Test
+    void expiredClaimResumesAndKeepsEarlierProgress() {
+        User user = createUser("resumed@example.com", 12);
+        // A previous runner removed 7 attempts, then died
+        loginAttemptRepository.deleteByIdIn(
+                loginAttemptRepository.findIdsByUserId(user.getId(), PageRequest.of(0, 7)));
+        DeletionJob job = new DeletionJob(user.getId(), user.getId());
+        job.setStatus(DeletionJobStatus.RUNNING);
+        job.setClaimedBy("dead-node");
+        job.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        job.setLoginAttemptsDeleted(7L);
+        job = deletionJobRepository.save(job);
+
+        DeletionJob finished = runner.run(job.getId());
+
+        assertEquals(DeletionJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(12L, finished.getLoginAttemptsDeleted());
+        assertFalse(userRepository.existsById(user.getId()));
+    }
+
+    private User createUser(String emailAddress, int loginAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+
+        User user = new User();
+        user.setFirstName("Deletion");
+        user.setLastName("Test");
+        user.setOrganization("JobDistributor");
+        user.setJobRole("Tester");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        user = userRepository.save(user);
+
+        for (String address : new String[]{emailAddress, "alt." + emailAddress}) {
+            Email email = new Email();
+            email.setUser(user);
+            email.setEmailAddress(address);
+            email.setIsPrimary(address.equals(emailAddress));
+            email.setCreatedAt(now);
+            email.setUpdatedAt(now);
+            emailRepository.save(email);
+
+            Password password = new Password();
+            password.setUser(user);
+            password.setEncryptedPassword("{bcrypt}not-a-real-hash");
+            password.setCreatedAt(now);
+            passwordRepository.save(password);
+        }
+
+        for (int i = 0; i < loginAttempts; i++) {
+            loginAttemptRepository.save(new LoginAttempt(emailAddress, user.getId(), "10.0.0.1", "test", true, null));
+        }
+        tokenBlacklistRepository.save(new TokenBlacklist(
+                TokenHashing.sha256("blacklisted-" + emailAddress), user.getId(), now.plusHours(1), "LOGOUT"));
+        refreshTokenRepository.save(new RefreshToken(
+                TokenHashing.sha256("refresh-" + emailAddress), user.getId(), "family-" + user.getId(), 0L,
+                now.plusDays(7), "10.0.0.1"));
+        passwordResetRepository.save(new PasswordReset(user.getId(), "reset-" + emailAddress, now.plusHours(1), null));
+        return user;
+    }
+}
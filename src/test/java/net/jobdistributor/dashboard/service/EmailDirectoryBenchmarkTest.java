@@ -0,0 +1,114 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jobdistributor.dashboard.entity.Email;
+import net.jobdistributor.dashboard.entity.User;
+import net.jobdistributor.dashboard.entity.UserStatus;
+import net.jobdistributor.dashboard.repository.EmailRepository;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unknown-address lookups: EmailDirectory against the SQL path it replaces
+ * (UserRepository.findLoginCredentials), on H2.
+ *
+ * Timing-based, so it only runs on request:
+ *   mvn test -Dbenchmark=true -Dtest=EmailDirectoryBenchmarkTest
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmailDirectoryBenchmarkTest {
+
+    private static final int USERS = 2_000;
+    private static final int LOOKUPS = 20_000;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private EmailRepository emailRepository;
+
+    private EmailDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setFirstName("Directory");
+            user.setLastName("User" + i);
+            user.setOrganization("JobDistributor");
+            user.setJobRole("Tester");
+            user.setStatus(UserStatus.ACTIVE);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user = userRepository.save(user);
+
+            Email email = new Email();
+            email.setUser(user);
+            email.setEmailAddress("known" + i + "@example.com");
+            email.setIsPrimary(true);
+            email.setCreatedAt(now);
+            email.setUpdatedAt(now);
+            emailRepository.save(email);
+        }
+
+        directory = new EmailDirectory();
+        ReflectionTestUtils.setField(directory, "emailRepository", emailRepository);
+        ReflectionTestUtils.setField(directory, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(directory, "enabled", true);
+        ReflectionTestUtils.setField(directory, "batchSize", 500);
+        ReflectionTestUtils.setField(directory, "maxEntries", 6_000_000L);
+        directory.registerMetrics();
+        directory.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void directoryAnswersUnknownAddressesWithoutTheQuery() {
+        // Warm up both paths
+        lookUpWithDirectory(2_000);
+        lookUpWithSql(2_000);
+
+        long directoryNanos = lookUpWithDirectory(LOOKUPS);
+        long sqlNanos = lookUpWithSql(LOOKUPS);
+
+        System.out.printf("Unknown-address lookups (%d emails, %d lookups)%n", USERS, LOOKUPS);
+        System.out.printf("  EmailDirectory.isDefinitelyUnknown: %.2f us/lookup%n", directoryNanos / 1000.0 / LOOKUPS);
+        System.out.printf("  UserRepository.findLoginCredentials: %.2f us/lookup%n", sqlNanos / 1000.0 / LOOKUPS);
+
+        assertTrue(directoryNanos * 10 < sqlNanos,
+                "directory " + directoryNanos + " ns vs sql " + sqlNanos + " ns");
+    }
+
+    private long lookUpWithDirectory(int lookups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            assertTrue(directory.isDefinitelyUnknown("stranger" + i + "@example.com"));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long lookUpWithSql(int lookups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            assertTrue(userRepository.findLoginCredentials("stranger" + i + "@example.com").isEmpty());
+        }
+        return System.nanoTime() - start;
+    }
+}
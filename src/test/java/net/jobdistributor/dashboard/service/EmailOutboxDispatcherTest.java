@@ -0,0 +1,327 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jobdistributor.dashboard.entity.EmailOutbox;
+import net.jobdistributor.dashboard.entity.EmailOutboxStatus;
+import net.jobdistributor.dashboard.entity.EmailType;
+import net.jobdistributor.dashboard.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispatches real outbox rows to an in-process SMTP stub.
+ * Runs without a test transaction so the dispatcher's updates commit.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private SmtpStub smtp;
+    private SmtpTransportPool pool;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        emailOutboxRepository.deleteAll();
+        smtp = new SmtpStub();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        pool = new SmtpTransportPool();
+        ReflectionTestUtils.setField(pool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(pool, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(pool, "poolSize", 2);
+        ReflectionTestUtils.setField(pool, "maxIdleMillis", 60_000L);
+        ReflectionTestUtils.setField(pool, "validateAfterIdleMillis", 5_000L);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 100);
+        ReflectionTestUtils.setField(pool, "borrowTimeoutMillis", 5_000L);
+        pool.init();
+
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepository", emailOutboxRepository);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "jobLockService", new JobLockService());
+        ReflectionTestUtils.setField(dispatcher, "smtpTransportPool", pool);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "enabled", false);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseMillis", 30_000L);
+        ReflectionTestUtils.setField(dispatcher, "retryMaxMillis", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "domainLimitPerMinute", 600);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dispatcher.stop();
+        pool.closeAll();
+        smtp.close();
+    }
+
+    @Test
+    void sendsTheBatchOverOneConnectionResetsFirst() {
+        queue(EmailType.VERIFICATION, "a@example.com");
+        queue(EmailType.WELCOME, "b@example.com");
+        queue(EmailType.PASSWORD_RESET, "c@example.com");
+        queue(EmailType.VERIFICATION, "d@example.com");
+
+        EmailOutboxDispatcher.DispatchResult result = dispatcher.dispatchOnce();
+
+        assertEquals(4, result.sent());
+        assertEquals(1, smtp.connections.get());
+        assertEquals(List.of("c@example.com", "a@example.com", "d@example.com", "b@example.com"), smtp.recipients);
+        assertTrue(emailOutboxRepository.findAll().stream()
+                .allMatch(email -> email.getStatus() == EmailOutboxStatus.SENT && email.getSentAt() != null));
+        // Bodies may hold one-time links; they are not kept once delivered
+        assertTrue(emailOutboxRepository.findAll().stream().allMatch(email -> email.getBody().isEmpty()));
+
+        // Nothing left to send
+        assertEquals(0, dispatcher.dispatchOnce().sent());
+        assertEquals(4, smtp.recipients.size());
+    }
+
+    @Test
+    void connectionsStayOpenBetweenBatches() {
+        queue(EmailType.VERIFICATION, "a@example.com");
+        dispatcher.dispatchOnce();
+        queue(EmailType.VERIFICATION, "b@example.com");
+        dispatcher.dispatchOnce();
+
+        assertEquals(List.of("a@example.com", "b@example.com"), smtp.recipients);
+        assertEquals(1, smtp.connections.get());
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void domainsAreSpreadAcrossPooledConnections() {
+        for (int i = 0; i < 10; i++) {
+            queue(EmailType.VERIFICATION, "user" + i + "@one.example");
+            queue(EmailType.VERIFICATION, "user" + i + "@two.example");
+        }
+
+        assertEquals(20, dispatcher.dispatchOnce().sent());
+        assertEquals(20, smtp.recipients.size());
+        assertEquals(2, smtp.connections.get());
+    }
+
+    @Test
+    void busyDomainIsDeferredWithoutUsingAnAttempt() {
+        ReflectionTestUtils.setField(dispatcher, "domainLimitPerMinute", 2);
+        for (int i = 0; i < 3; i++) {
+            queue(EmailType.VERIFICATION, "user" + i + "@busy.example");
+        }
+        queue(EmailType.VERIFICATION, "someone@quiet.example");
+
+        EmailOutboxDispatcher.DispatchResult result = dispatcher.dispatchOnce();
+
+        assertEquals(3, result.sent());
+        assertEquals(1, result.deferred());
+        EmailOutbox deferred = emailOutboxRepository.findAll().stream()
+                .filter(email -> email.getStatus() == EmailOutboxStatus.PENDING)
+                .findFirst().orElseThrow();
+        assertEquals("user2@busy.example", deferred.getRecipient());
+        assertEquals(0, deferred.getAttempts());
+        assertTrue(deferred.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithBackoffOthersAreSent() {
+        queue(EmailType.PASSWORD_RESET, "ok@example.com");
+        Long rejectedId = queue(EmailType.PASSWORD_RESET, "reject@example.com").getId();
+
+        EmailOutboxDispatcher.DispatchResult result = dispatcher.dispatchOnce();
+
+        assertEquals(1, result.sent());
+        assertEquals(1, result.retrying());
+        assertEquals(List.of("ok@example.com"), smtp.recipients);
+
+        EmailOutbox rejected = emailOutboxRepository.findById(rejectedId).orElseThrow();
+        assertEquals(EmailOutboxStatus.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertNotNull(rejected.getLastError());
+        assertTrue(rejected.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        // Not due yet
+        assertEquals(0, dispatcher.dispatchOnce().retrying());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        Long id = queue(EmailType.WELCOME, "reject@example.com").getId();
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            EmailOutbox email = emailOutboxRepository.findById(id).orElseThrow();
+            email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            emailOutboxRepository.save(email);
+            dispatcher.dispatchOnce();
+        }
+
+        EmailOutbox email = emailOutboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxStatus.FAILED, email.getStatus());
+        assertEquals(3, email.getAttempts());
+        assertEquals("", email.getBody());
+    }
+
+    @Test
+    void purgeRemovesOldSentAndFailedRows() {
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "sentRetentionHours", 72L);
+        ReflectionTestUtils.setField(dispatcher, "failedRetentionHours", 72L);
+        LocalDateTime old = LocalDateTime.now().minusHours(73);
+
+        EmailOutbox sent = queue(EmailType.VERIFICATION, "sent@example.com");
+        sent.setStatus(EmailOutboxStatus.SENT);
+        sent.setSentAt(old);
+        emailOutboxRepository.save(sent);
+        EmailOutbox failed = queue(EmailType.PASSWORD_RESET, "failed@example.com");
+        failed.setStatus(EmailOutboxStatus.FAILED);
+        failed.setNextAttemptAt(old);
+        emailOutboxRepository.save(failed);
+        Long recentFailedId = queue(EmailType.PASSWORD_RESET, "recent@example.com").getId();
+        EmailOutbox recentFailed = emailOutboxRepository.findById(recentFailedId).orElseThrow();
+        recentFailed.setStatus(EmailOutboxStatus.FAILED);
+        emailOutboxRepository.save(recentFailed);
+
+        dispatcher.purgeSent();
+
+        assertEquals(List.of(recentFailedId), emailOutboxRepository.findAll().stream().map(EmailOutbox::getId).toList());
+    }
+
+    @Test
+    void unreachableServerKeepsEmailsQueued() throws IOException {
+        Long id = queue(EmailType.PASSWORD_RESET, "c@example.com").getId();
+        smtp.close();
+
+        EmailOutboxDispatcher.DispatchResult result = dispatcher.dispatchOnce();
+
+        assertEquals(0, result.sent());
+        assertEquals(1, result.retrying());
+        assertEquals(EmailOutboxStatus.PENDING, emailOutboxRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(30_000L, dispatcher.backoffMillis(1));
+        assertEquals(60_000L, dispatcher.backoffMillis(2));
+        assertEquals(240_000L, dispatcher.backoffMillis(4));
+        assertEquals(3_600_000L, dispatcher.backoffMillis(20));
+    }
+
+    private EmailOutbox queue(EmailType type, String recipient) {
+        return emailOutboxRepository.save(new EmailOutbox(type, recipient, "Subject", "Body for " + recipient));
+    }
+
+    /**
+     * Minimal SMTP server: accepts everything except recipients containing "reject"
+     */
+    private static class SmtpStub {
+        private final ServerSocket server;
+        final AtomicInteger connections = new AtomicInteger();
+        final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        SmtpStub() throws IOException {
+            server = new ServerSocket(0);
+            Thread acceptor = new Thread(this::accept, "smtp-stub");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void close() throws IOException {
+            server.close();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "smtp-stub-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 stub ESMTP");
+                String pendingRecipient = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT TO:")) {
+                        if (command.contains("REJECT")) {
+                            reply(out, "550 No such user");
+                        } else {
+                            pendingRecipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is not inspected
+                        }
+                        recipients.add(pendingRecipient);
+                        pendingRecipient = null;
+                        reply(out, "250 Queued");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else if (command.startsWith("RSET")) {
+                        pendingRecipient = null;
+                        reply(out, "250 OK");
+                    } else {
+                        // EHLO, HELO, MAIL FROM, NOOP
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+    }
+}
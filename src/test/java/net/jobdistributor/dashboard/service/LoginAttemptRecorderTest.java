@@ -0,0 +1,102 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jobdistributor.dashboard.entity.LoginAttempt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoginAttemptRecorderTest {
+
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final CountDownLatch databaseReleased = new CountDownLatch(1);
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginAttemptRecorder recorder;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    databaseReleased.await(10, TimeUnit.SECONDS);
+                    written.addAndGet(invocation.<Collection<?>>getArgument(1).size());
+                    batches.incrementAndGet();
+                    return new int[0][];
+                });
+
+        recorder = new LoginAttemptRecorder();
+        ReflectionTestUtils.setField(recorder, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(recorder, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(recorder, "queueCapacity", 100);
+        ReflectionTestUtils.setField(recorder, "batchSize", 50);
+        ReflectionTestUtils.setField(recorder, "flushIntervalMillis", 100L);
+        ReflectionTestUtils.setField(recorder, "shutdownTimeoutMillis", 5000L);
+        recorder.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseReleased.countDown();
+        recorder.stop();
+    }
+
+    @Test
+    void attemptsAreWrittenInBatches() throws Exception {
+        databaseReleased.countDown();
+        for (int i = 0; i < 100; i++) {
+            recorder.record(attempt(i));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.get() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(100, written.get());
+        assertTrue(batches.get() <= 10, "expected batched inserts, got " + batches.get());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlocking() {
+        // Database is stuck: at most one batch in flight plus a full queue
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            recorder.record(attempt(i));
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(recorder.queueDepth() <= 100);
+    }
+
+    @Test
+    void shutdownDrainsTheQueue() {
+        for (int i = 0; i < 80; i++) {
+            recorder.record(attempt(i));
+        }
+        databaseReleased.countDown();
+
+        recorder.stop();
+
+        assertEquals(80, written.get());
+        assertEquals(0, recorder.queueDepth());
+    }
+
+    private static LoginAttempt attempt(int i) {
+        return new LoginAttempt("user" + i + "@example.com", null, "10.0.0.1", "test", false, "Invalid password");
+    }
+}
@@ -0,0 +1,70 @@
+package net.jobdistributor.dashboard.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaintenanceExecutorTest {
+
+    private MaintenanceExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new MaintenanceExecutor();
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void jobRunsOffTheCallingThreadAndIsNotQueuedTwice() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String[] threadName = new String[1];
+
+        assertTrue(executor.submit("slow", () -> {
+            threadName[0] = Thread.currentThread().getName();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals("maintenance", threadName[0]);
+
+        // Still running - a second tick is dropped
+        assertFalse(executor.submit("slow", () -> fail("ran twice")));
+
+        release.countDown();
+        CountDownLatch again = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!executor.submit("slow", again::countDown) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(again.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingJobDoesNotBlockTheNextOne() throws InterruptedException {
+        executor.submit("broken", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        CountDownLatch ran = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!executor.submit("broken", ran::countDown) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+}
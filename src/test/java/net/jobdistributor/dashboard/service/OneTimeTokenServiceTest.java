@@ -0,0 +1,155 @@
+package net.jobdistributor.dashboard.service;
+
+import net.jobdistributor.dashboard.entity.OneTimeToken;
+import net.jobdistributor.dashboard.entity.OneTimeTokenPurpose;
+import net.jobdistributor.dashboard.repository.JobLockRepository;
+import net.jobdistributor.dashboard.repository.OneTimeTokenRepository;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction so parallel redemptions commit on their own connections.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OneTimeTokenServiceTest {
+
+    @Autowired
+    private OneTimeTokenRepository oneTimeTokenRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    private OneTimeTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        oneTimeTokenRepository.deleteAll();
+
+        JobLockService jobLockService = new JobLockService();
+        ReflectionTestUtils.setField(jobLockService, "jobLockRepository", jobLockRepository);
+
+        service = new OneTimeTokenService();
+        ReflectionTestUtils.setField(service, "oneTimeTokenRepository", oneTimeTokenRepository);
+        ReflectionTestUtils.setField(service, "jobLockService", jobLockService);
+        ReflectionTestUtils.setField(service, "sweepChunkSize", 2);
+        ReflectionTestUtils.setField(service, "sweepTimeBudgetMillis", 10_000L);
+    }
+
+    @Test
+    void tokenCanBeRedeemedOnce() {
+        String token = service.issue(OneTimeTokenPurpose.PASSWORD_RESET, 42L, 42L, Duration.ofHours(1), "10.0.0.1");
+
+        assertTrue(token.startsWith(Long.toString(42, 36) + "."));
+        assertTrue(service.isRedeemable(OneTimeTokenPurpose.PASSWORD_RESET, token));
+        assertEquals(42L, service.consume(OneTimeTokenPurpose.PASSWORD_RESET, token));
+        assertNull(service.consume(OneTimeTokenPurpose.PASSWORD_RESET, token));
+        assertFalse(service.isRedeemable(OneTimeTokenPurpose.PASSWORD_RESET, token));
+    }
+
+    @Test
+    void onlyTheStoredHashIsPersisted() {
+        String token = service.issue(OneTimeTokenPurpose.EMAIL_VERIFICATION, 7L, 3L, Duration.ofHours(24), null);
+
+        OneTimeToken stored = oneTimeTokenRepository.findAll().get(0);
+        assertArrayEquals(TokenHashing.sha256(token), stored.getTokenHash());
+        assertEquals(7L, stored.getSubjectId());
+        assertEquals(3L, stored.getUserId());
+    }
+
+    @Test
+    void wrongPurposeOrTamperedSubjectIsRejected() {
+        String token = service.issue(OneTimeTokenPurpose.EMAIL_VERIFICATION, 7L, 3L, Duration.ofHours(24), null);
+        String otherSubject = Long.toString(8, 36) + token.substring(token.indexOf('.'));
+
+        assertNull(service.consume(OneTimeTokenPurpose.PASSWORD_RESET, token));
+        assertNull(service.consume(OneTimeTokenPurpose.EMAIL_VERIFICATION, otherSubject));
+        assertEquals(7L, service.consume(OneTimeTokenPurpose.EMAIL_VERIFICATION, token));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = service.issue(OneTimeTokenPurpose.PASSWORD_RESET, 42L, 42L, Duration.ofMillis(-1), null);
+
+        assertNull(service.consume(OneTimeTokenPurpose.PASSWORD_RESET, token));
+    }
+
+    @Test
+    void newTokenReplacesOutstandingOnes() {
+        String first = service.issue(OneTimeTokenPurpose.PASSWORD_RESET, 42L, 42L, Duration.ofHours(1), null);
+        String second = service.issue(OneTimeTokenPurpose.PASSWORD_RESET, 42L, 42L, Duration.ofHours(1), null);
+
+        assertNull(service.consume(OneTimeTokenPurpose.PASSWORD_RESET, first));
+        assertEquals(42L, service.consume(OneTimeTokenPurpose.PASSWORD_RESET, second));
+    }
+
+    @Test
+    void malformedAndLegacyTokensHaveNoSubject() {
+        assertNull(OneTimeTokenService.parseSubjectId(null));
+        assertNull(OneTimeTokenService.parseSubjectId("0123456789abcdef0123456789abcdef"));
+        assertNull(OneTimeTokenService.parseSubjectId(".secret"));
+        assertNull(OneTimeTokenService.parseSubjectId("abc."));
+        assertNull(OneTimeTokenService.parseSubjectId("!!.secret"));
+        assertEquals(42L, OneTimeTokenService.parseSubjectId("16.secret"));
+        assertNull(service.consume(OneTimeTokenPurpose.PASSWORD_RESET, "0123456789abcdef0123456789abcdef"));
+    }
+
+    @Test
+    void parallelRedemptionsHaveExactlyOneWinner() throws Exception {
+        String token = service.issue(OneTimeTokenPurpose.PASSWORD_RESET, 42L, 42L, Duration.ofHours(1), null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.consume(OneTimeTokenPurpose.PASSWORD_RESET, token);
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Long> result : results) {
+                if (result.get() != null) {
+                    winners++;
+                }
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sweepRemovesOnlyExpiredTokens() {
+        for (long subject = 1; subject <= 5; subject++) {
+            service.issue(OneTimeTokenPurpose.PASSWORD_RESET, subject, subject, Duration.ofMillis(-1), null);
+        }
+        String live = service.issue(OneTimeTokenPurpose.PASSWORD_RESET, 99L, 99L, Duration.ofHours(1), null);
+
+        service.sweepExpired();
+
+        assertEquals(1, oneTimeTokenRepository.count());
+        assertTrue(oneTimeTokenRepository.findAll().get(0).getExpiresAt().isAfter(LocalDateTime.now()));
+        assertEquals(99L, service.consume(OneTimeTokenPurpose.PASSWORD_RESET, live));
+    }
+}
@@ -0,0 +1,128 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jobdistributor.dashboard.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 2);
+        ReflectionTestUtils.setField(service, "algorithm", "bcrypt");
+        ReflectionTestUtils.setField(service, "configuredStrength", 6);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void encodedPasswordMatches() throws Exception {
+        String encoded = service.encode("correct horse").get(10, TimeUnit.SECONDS);
+
+        assertTrue(service.verify("correct horse", encoded).get(10, TimeUnit.SECONDS).matches());
+        assertFalse(service.verify("wrong horse", encoded).get(10, TimeUnit.SECONDS).matches());
+    }
+
+    @Test
+    void newHashesCarryAlgorithmPrefix() throws Exception {
+        String encoded = service.encode("secret").get(10, TimeUnit.SECONDS);
+
+        assertTrue(encoded.startsWith("{bcrypt}$2a$06$"), encoded);
+        assertNull(service.verify("secret", encoded).get(10, TimeUnit.SECONDS).upgradedHash());
+    }
+
+    @Test
+    void legacyHashVerifiesAndIsUpgraded() throws Exception {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHashingService.PasswordCheck check = service.verify("secret", legacy).get(10, TimeUnit.SECONDS);
+
+        assertTrue(check.matches());
+        assertNotNull(check.upgradedHash());
+        assertTrue(service.verify("secret", check.upgradedHash()).get(10, TimeUnit.SECONDS).matches());
+    }
+
+    @Test
+    void wrongPasswordIsNeverUpgraded() throws Exception {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHashingService.PasswordCheck check = service.verify("guess", legacy).get(10, TimeUnit.SECONDS);
+
+        assertFalse(check.matches());
+        assertNull(check.upgradedHash());
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        PasswordHashingService calibrated = new PasswordHashingService();
+        ReflectionTestUtils.setField(calibrated, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(calibrated, "threads", 1);
+        ReflectionTestUtils.setField(calibrated, "queueCapacity", 2);
+        ReflectionTestUtils.setField(calibrated, "algorithm", "bcrypt");
+        ReflectionTestUtils.setField(calibrated, "targetVerifyMillis", 50L);
+        ReflectionTestUtils.setField(calibrated, "minStrength", 4);
+        ReflectionTestUtils.setField(calibrated, "maxStrength", 12);
+        calibrated.init();
+        try {
+            assertTrue(calibrated.getBcryptStrength() >= 4 && calibrated.getBcryptStrength() <= 12);
+        } finally {
+            calibrated.shutdown();
+        }
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(service.encode("password-" + i));
+        }
+
+        // One running + two queued; the rest fail without waiting for BCrypt
+        long rejected = futures.stream()
+                .filter(future -> future.isCompletedExceptionally())
+                .count();
+        assertTrue(rejected >= 7, "expected fast rejections, got " + rejected);
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> futures.get(futures.size() - 1).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingBusyException.class, failure.getCause());
+    }
+
+    @Test
+    void continuationsRunOnTheCompletionPoolNotOnBcryptWorkers() throws Exception {
+        AuthCompletionExecutor completion = new AuthCompletionExecutor();
+        ReflectionTestUtils.setField(completion, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(completion, "threads", 1);
+        ReflectionTestUtils.setField(completion, "queueCapacity", 2);
+        completion.init();
+        try {
+            String thread = service.encode("secret")
+                    .thenApplyAsync(encoded -> Thread.currentThread().getName(), completion)
+                    .get(10, TimeUnit.SECONDS);
+            assertTrue(thread.startsWith("auth-completion-"), thread);
+        } finally {
+            completion.shutdown();
+        }
+    }
+}
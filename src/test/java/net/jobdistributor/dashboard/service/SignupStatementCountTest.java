@@ -0,0 +1,173 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import net.jobdistributor.dashboard.config.IdGeneratorSeeder;
+import net.jobdistributor.dashboard.config.PersistenceConfig;
+import net.jobdistributor.dashboard.repository.AccountChangeEventRepository;
+import net.jobdistributor.dashboard.repository.EmailOutboxRepository;
+import net.jobdistributor.dashboard.repository.EmailRepository;
+import net.jobdistributor.dashboard.repository.JobLockRepository;
+import net.jobdistributor.dashboard.repository.OneTimeTokenRepository;
+import net.jobdistributor.dashboard.repository.PasswordRepository;
+import net.jobdistributor.dashboard.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Counts the JDBC statements behind AuthService.signup, the real path: the
+ * in-transaction duplicate check, the user, email and password rows, the
+ * verification token and its outbox email, and the change-log event.
+ *
+ * Runs without a test transaction because signup commits its own on the
+ * completion pool.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PersistenceConfig.class, IdGeneratorSeeder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SignupStatementCountTest {
+
+    private static final AtomicInteger ADDRESSES = new AtomicInteger();
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EmailRepository emailRepository;
+    @Autowired private PasswordRepository passwordRepository;
+    @Autowired private OneTimeTokenRepository oneTimeTokenRepository;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private AccountChangeEventRepository accountChangeEventRepository;
+    @Autowired private JobLockRepository jobLockRepository;
+
+    private PasswordHashingService passwordHashingService;
+    private AuthCompletionExecutor authCompletionExecutor;
+    private AuthService authService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        passwordHashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 4);
+        ReflectionTestUtils.setField(passwordHashingService, "algorithm", "bcrypt");
+        ReflectionTestUtils.setField(passwordHashingService, "configuredStrength", 4);
+        passwordHashingService.init();
+
+        authCompletionExecutor = new AuthCompletionExecutor();
+        ReflectionTestUtils.setField(authCompletionExecutor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(authCompletionExecutor, "threads", 1);
+        ReflectionTestUtils.setField(authCompletionExecutor, "queueCapacity", 4);
+        authCompletionExecutor.init();
+
+        EmailDirectory emailDirectory = new EmailDirectory();
+        ReflectionTestUtils.setField(emailDirectory, "emailRepository", emailRepository);
+        ReflectionTestUtils.setField(emailDirectory, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(emailDirectory, "enabled", true);
+        ReflectionTestUtils.setField(emailDirectory, "batchSize", 500);
+        ReflectionTestUtils.setField(emailDirectory, "maxEntries", 10_000L);
+        emailDirectory.registerMetrics();
+        emailDirectory.reload();
+
+        JobLockService jobLockService = new JobLockService();
+        ReflectionTestUtils.setField(jobLockService, "jobLockRepository", jobLockRepository);
+
+        OneTimeTokenService oneTimeTokenService = new OneTimeTokenService();
+        ReflectionTestUtils.setField(oneTimeTokenService, "oneTimeTokenRepository", oneTimeTokenRepository);
+        ReflectionTestUtils.setField(oneTimeTokenService, "jobLockService", jobLockService);
+
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "emailOutboxRepository", emailOutboxRepository);
+        ReflectionTestUtils.setField(emailService, "emailOutboxDispatcher", mock(EmailOutboxDispatcher.class));
+        ReflectionTestUtils.setField(emailService, "frontendUrl", "http://localhost:3000");
+        emailService.init();
+
+        AccountChangeLog accountChangeLog = new AccountChangeLog();
+        ReflectionTestUtils.setField(accountChangeLog, "accountChangeEventRepository", accountChangeEventRepository);
+        ReflectionTestUtils.setField(accountChangeLog, "enabled", true);
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "emailRepository", emailRepository);
+        ReflectionTestUtils.setField(authService, "passwordRepository", passwordRepository);
+        ReflectionTestUtils.setField(authService, "oneTimeTokenService", oneTimeTokenService);
+        ReflectionTestUtils.setField(authService, "emailService", emailService);
+        ReflectionTestUtils.setField(authService, "passwordHashingService", passwordHashingService);
+        ReflectionTestUtils.setField(authService, "authCompletionExecutor", authCompletionExecutor);
+        ReflectionTestUtils.setField(authService, "emailDirectory", emailDirectory);
+        ReflectionTestUtils.setField(authService, "accountChangeLog", accountChangeLog);
+        ReflectionTestUtils.setField(authService, "transactionTemplate", new TransactionTemplate(transactionManager));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Allocate the first id block of each generator outside the measured part
+        signup();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        authCompletionExecutor.shutdown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void signupStatementCount() {
+        Long userId = signup();
+        assertNotNull(userId);
+
+        // 1 SELECT  emails          duplicate check inside the transaction
+        //                           (the directory answers the one before hashing)
+        // 1 UPDATE  one_time_tokens revoke earlier verification tokens
+        // 6 INSERT  users, emails, one_time_tokens, email_outbox, passwords
+        //           (ids from the current block) and account_change_events (IDENTITY)
+        assertEquals(6, statistics.getEntityInsertCount());
+        assertEquals(8, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void duplicateSignupIsTurnedAwayBeforeHashing() {
+        String address = nextAddress();
+        assertTrue(signup(address).isSuccess());
+        statistics.clear();
+
+        AuthService.SignupResult duplicate = signup(address);
+
+        assertFalse(duplicate.isSuccess());
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Long signup() {
+        AuthService.SignupResult result = signup(nextAddress());
+        assertTrue(result.isSuccess(), result.getMessage());
+        return result.getUserId();
+    }
+
+    private AuthService.SignupResult signup(String address) {
+        return authService.signup(address, "Batch", "Signup", "JobDistributor", "Tester", null,
+                "correct horse battery staple", "127.0.0.1").join();
+    }
+
+    private static String nextAddress() {
+        return "signup" + ADDRESSES.incrementAndGet() + "@example.com";
+    }
+}
@@ -0,0 +1,128 @@
+package net.jobdistributor.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jobdistributor.dashboard.repository.TokenBlacklistRepository;
+import net.jobdistributor.dashboard.util.TokenHashing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenBlacklistIndexTest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Stands in for the token_blacklist table (hex keys so the set compares by value)
+    private final Set<String> table = ConcurrentHashMap.newKeySet();
+
+    private TokenBlacklistRepository repository;
+    private TokenBlacklistIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenBlacklistRepository.class);
+        when(repository.existsByTokenHash(any(byte[].class)))
+                .thenAnswer(invocation -> table.contains(HEX.formatHex(invocation.<byte[]>getArgument(0))));
+        when(repository.countByExpiresAtAfter(any()))
+                .thenAnswer(invocation -> (long) table.size());
+        when(repository.findActiveTokenHashes(any()))
+                .thenAnswer(invocation -> table.stream().map(HEX::parseHex).toList());
+
+        index = new TokenBlacklistIndex();
+        ReflectionTestUtils.setField(index, "tokenBlacklistRepository", repository);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(index, "minCapacity", 1000L);
+        index.registerMetrics();
+    }
+
+    @Test
+    void unknownTokensDoNotReachTheDatabase() {
+        table.add(HEX.formatHex(hash("revoked")));
+        index.rebuild();
+        clearInvocations(repository);
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(index.isBlacklisted(hash("token-" + i)));
+        }
+
+        // At 0.1% target rate a handful of false positives is fine, hundreds are not
+        verify(repository, atMost(10)).existsByTokenHash(any(byte[].class));
+        assertTrue(index.isBlacklisted(hash("revoked")));
+    }
+
+    @Test
+    void revocationsDuringRebuildAreNeverLost() throws Exception {
+        index.rebuild();
+
+        int writers = 4;
+        int revocationsPerWriter = 2000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+
+        // Rebuild continuously while logouts arrive
+        executor.submit(() -> {
+            while (writing.get()) {
+                index.rebuild();
+            }
+        });
+
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            executor.submit(() -> {
+                for (int i = 0; i < revocationsPerWriter; i++) {
+                    byte[] tokenHash = hash("writer-" + writer + "-" + i);
+                    // Same order as LogoutService: add, commit, add again after commit
+                    index.recordRevocation(tokenHash);
+                    table.add(HEX.formatHex(tokenHash));
+                    index.recordRevocation(tokenHash);
+                }
+                writersDone.countDown();
+            });
+        }
+
+        assertTrue(writersDone.await(60, TimeUnit.SECONDS));
+        writing.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        List<String> missing = table.stream()
+                .filter(tokenHash -> !index.mightContain(HEX.parseHex(tokenHash)))
+                .toList();
+        assertEquals(List.of(), missing, "filter lost revocations during rebuild");
+
+        for (String tokenHash : table) {
+            assertTrue(index.isBlacklisted(HEX.parseHex(tokenHash)));
+        }
+    }
+
+    @Test
+    void metricsReflectFilterState() {
+        for (int i = 0; i < 100; i++) {
+            table.add(HEX.formatHex(hash("revoked-" + i)));
+        }
+        index.rebuild();
+
+        assertEquals(100, index.entries());
+        assertTrue(index.memoryBytes() > 0);
+        assertTrue(index.expectedFalsePositiveRate() < 0.001);
+    }
+
+    private static byte[] hash(String token) {
+        return TokenHashing.sha256(token);
+    }
+}
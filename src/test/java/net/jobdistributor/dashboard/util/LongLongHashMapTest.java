@@ -0,0 +1,97 @@
+package net.jobdistributor.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetAndOverwrite() {
+        LongLongHashMap map = new LongLongHashMap(16);
+
+        map.put(42L, 7L);
+        map.put(-5L, 0L);
+        assertEquals(7L, map.get(42L));
+        assertEquals(0L, map.get(-5L));
+        assertEquals(LongLongHashMap.ABSENT, map.get(43L));
+
+        map.put(42L, 8L);
+        assertEquals(8L, map.get(42L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void growsAndKeepsEveryEntry() {
+        LongLongHashMap map = new LongLongHashMap(16);
+        for (long i = 1; i <= 100_000; i++) {
+            map.put(i * 31, i);
+        }
+
+        assertEquals(100_000, map.size());
+        for (long i = 1; i <= 100_000; i++) {
+            assertEquals(i, map.get(i * 31));
+        }
+    }
+
+    @Test
+    void removalsKeepProbeRunsReachable() {
+        LongLongHashMap map = new LongLongHashMap(1000);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+
+        // Random mix of puts and removes, checked against HashMap
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 5000; key++) {
+            assertEquals(expected.getOrDefault(key, LongLongHashMap.ABSENT), map.get(key));
+        }
+    }
+
+    @Test
+    void removeIfValueDropsMatchingEntries() {
+        LongLongHashMap map = new LongLongHashMap(100);
+        for (long i = 1; i <= 100; i++) {
+            map.put(i, i % 3);
+        }
+
+        assertEquals(33, map.removeIfValue(value -> value == 0));
+        assertEquals(67, map.size());
+        assertEquals(LongLongHashMap.ABSENT, map.get(3L));
+        assertEquals(1L, map.get(4L));
+    }
+
+    @Test
+    void fiveMillionEntriesFitInTheTargetFootprint() {
+        // 16 bytes per slot, load factor 0.7, power-of-two capacity
+        assertEquals(128L * 1024 * 1024, LongLongHashMap.estimateMemoryBytes(5_000_000));
+    }
+
+    @Test
+    void fiveMillionEntriesLoadWithoutOutgrowingTheBudget() {
+        // Sized the way EmailDirectory.reload sizes it: row count plus 10% headroom
+        LongLongHashMap map = new LongLongHashMap(5_500_000);
+        Random random = new Random(5);
+        for (int i = 0; i < 5_000_000; i++) {
+            long key = random.nextLong();
+            map.put(key != 0 ? key : 1, i);
+        }
+
+        assertTrue(map.size() >= 4_999_000, "size " + map.size());
+        assertEquals(LongLongHashMap.estimateMemoryBytes(5_000_000), map.memoryBytes());
+        assertEquals(128L * 1024 * 1024, map.memoryBytes());
+    }
+}
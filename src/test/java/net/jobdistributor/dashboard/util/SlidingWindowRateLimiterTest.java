@@ -0,0 +1,120 @@
+package net.jobdistributor.dashboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void allowsUpToLimitThenRejectsWithRetryAfter() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 1000);
+        long now = 10 * WINDOW;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:1", 5, now));
+        }
+
+        long retryAfter = limiter.tryAcquire("ip:1", 5, now);
+        assertTrue(retryAfter > 0 && retryAfter <= 2 * WINDOW, "retryAfter " + retryAfter);
+        // Other keys are independent
+        assertEquals(0, limiter.tryAcquire("ip:2", 5, now));
+    }
+
+    @Test
+    void previousWindowSlidesOut() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 1000);
+        long start = 10 * WINDOW;
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("k", 10, start));
+        }
+
+        // Early in the next window the previous 10 still weigh almost fully (10 x 0.9 = 9):
+        // one more request fits, the next one would reach 11
+        long early = start + WINDOW + WINDOW / 10;
+        assertEquals(0, limiter.tryAcquire("k", 10, early));
+        assertTrue(limiter.tryAcquire("k", 10, early) > 0);
+        // Halfway through, half of them have slid out
+        assertEquals(0, limiter.tryAcquire("k", 10, start + WINDOW + WINDOW / 2 + 1));
+        // Two windows later nothing is left
+        assertEquals(0, limiter.tryAcquire("k", 1, start + 3 * WINDOW));
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheLimit() throws Exception {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 1000);
+        long now = 10 * WINDOW;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("hot", 100, now) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void idleKeysAreEvicted() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 1000);
+        long now = 10 * WINDOW;
+        limiter.tryAcquire("old", 5, now);
+        limiter.tryAcquire("recent", 5, now + 2 * WINDOW);
+
+        assertEquals(1, limiter.evictIdle(now + 2 * WINDOW));
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void fullTableLetsNewKeysThroughUntrackedAndKeepsLimitingKnownOnes() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 3);
+        long now = 10 * WINDOW;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("sprayed-" + i + "@example.com", 5, now));
+        }
+
+        // A legitimate user arriving after the spray is not locked out
+        assertEquals(0, limiter.tryAcquire("victim@example.com", 5, now));
+        assertEquals(1, limiter.untrackedWhileFull());
+        assertEquals(3, limiter.size());
+
+        // Tracked keys are still limited
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiter.tryAcquire("sprayed-0@example.com", 5, now));
+        }
+        assertTrue(limiter.tryAcquire("sprayed-0@example.com", 5, now) > 0);
+    }
+
+    @Test
+    void fullTableSweepsIdleKeysToMakeRoom() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 2);
+        long now = 10 * WINDOW;
+        limiter.tryAcquire("old-1", 5, now);
+        limiter.tryAcquire("old-2", 5, now);
+
+        assertEquals(0, limiter.tryAcquire("new", 5, now + 2 * WINDOW));
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.untrackedWhileFull());
+    }
+}